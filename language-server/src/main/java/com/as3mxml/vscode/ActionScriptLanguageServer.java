@@ -120,6 +120,7 @@ public class ActionScriptLanguageServer implements LanguageServer, LanguageClien
         serverCapabilities.setTypeDefinitionProvider(true);
         serverCapabilities.setImplementationProvider(true);
         serverCapabilities.setDocumentSymbolProvider(true);
+        serverCapabilities.setFoldingRangeProvider(true);
         serverCapabilities.setDocumentHighlightProvider(false);
         serverCapabilities.setDocumentRangeFormattingProvider(false);
         serverCapabilities.setHoverProvider(true);
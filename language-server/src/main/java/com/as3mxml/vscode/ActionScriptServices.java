@@ -19,7 +19,6 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
-import java.io.Reader;
 import java.net.URI;
 import java.nio.file.FileSystems;
 import java.nio.file.FileVisitResult;
@@ -42,13 +41,21 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import com.as3mxml.asconfigc.ASConfigC;
 import com.as3mxml.asconfigc.ASConfigCException;
 import com.as3mxml.asconfigc.ASConfigCOptions;
 import com.as3mxml.asconfigc.compiler.ProjectType;
+import com.as3mxml.vscode.asdoc.ASDocCommentCache;
 import com.as3mxml.vscode.asdoc.VSCodeASDocDelegate;
 import com.as3mxml.vscode.commands.ICommandConstants;
 import com.as3mxml.vscode.compiler.CompilerShell;
@@ -57,6 +64,7 @@ import com.as3mxml.vscode.compiler.problems.SyntaxFallbackProblem;
 import com.as3mxml.vscode.project.ILspProject;
 import com.as3mxml.vscode.project.IProjectConfigStrategy;
 import com.as3mxml.vscode.project.IProjectConfigStrategyFactory;
+import com.as3mxml.vscode.project.IncludeSourcesTargetSettings;
 import com.as3mxml.vscode.project.ProjectOptions;
 import com.as3mxml.vscode.project.SimpleProjectConfigStrategy;
 import com.as3mxml.vscode.project.ActionScriptProjectData;
@@ -65,6 +73,7 @@ import com.as3mxml.vscode.providers.CompletionProvider;
 import com.as3mxml.vscode.providers.DefinitionProvider;
 import com.as3mxml.vscode.providers.DocumentSymbolProvider;
 import com.as3mxml.vscode.providers.ExecuteCommandProvider;
+import com.as3mxml.vscode.providers.FoldingRangeProvider;
 import com.as3mxml.vscode.providers.HoverProvider;
 import com.as3mxml.vscode.providers.ImplementationProvider;
 import com.as3mxml.vscode.providers.ReferencesProvider;
@@ -73,16 +82,24 @@ import com.as3mxml.vscode.providers.SignatureHelpProvider;
 import com.as3mxml.vscode.providers.TypeDefinitionProvider;
 import com.as3mxml.vscode.providers.WorkspaceSymbolProvider;
 import com.as3mxml.vscode.services.ActionScriptLanguageClient;
+import com.as3mxml.vscode.services.CheckProblemsProgress;
 import com.as3mxml.vscode.utils.ASTUtils;
 import com.as3mxml.vscode.utils.ActionScriptSDKUtils;
-import com.as3mxml.vscode.utils.CompilationUnitUtils;
 import com.as3mxml.vscode.utils.CompilationUnitUtils.IncludeFileData;
 import com.as3mxml.vscode.utils.CompilerProblemFilter;
 import com.as3mxml.vscode.utils.CompilerProjectUtils;
+import com.as3mxml.vscode.utils.DiagnosticsPublisher;
 import com.as3mxml.vscode.utils.FileTracker;
 import com.as3mxml.vscode.utils.LanguageServerCompilerUtils;
 import com.as3mxml.vscode.utils.ProblemTracker;
+import com.as3mxml.vscode.utils.ProjectMemoryBudget;
+import com.as3mxml.vscode.utils.ProjectOptionsUtils;
 import com.as3mxml.vscode.utils.RealTimeProblemsChecker;
+import com.as3mxml.vscode.utils.RequestResultCache;
+import com.as3mxml.vscode.utils.SWCSymbolDiskCache;
+import com.as3mxml.vscode.utils.SWCUsageTracker;
+import com.as3mxml.vscode.utils.SyntaxParseCache;
+import com.as3mxml.vscode.utils.SyntaxParseCache.ParseResult;
 import com.as3mxml.vscode.utils.ActionScriptProjectManager;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
@@ -93,15 +110,10 @@ import org.apache.royale.compiler.config.CommandLineConfigurator;
 import org.apache.royale.compiler.config.Configuration;
 import org.apache.royale.compiler.config.ICompilerProblemSettings;
 import org.apache.royale.compiler.config.ICompilerSettingsConstants;
+import org.apache.royale.compiler.definitions.IDefinition;
 import org.apache.royale.compiler.exceptions.ConfigurationException;
 import org.apache.royale.compiler.filespecs.IFileSpecification;
-import org.apache.royale.compiler.internal.parsing.as.ASParser;
-import org.apache.royale.compiler.internal.parsing.as.ASToken;
-import org.apache.royale.compiler.internal.parsing.as.RepairingTokenBuffer;
-import org.apache.royale.compiler.internal.parsing.as.StreamingASTokenizer;
 import org.apache.royale.compiler.internal.projects.RoyaleProjectConfigurator;
-import org.apache.royale.compiler.internal.targets.Target;
-import org.apache.royale.compiler.internal.tree.as.FileNode;
 import org.apache.royale.compiler.internal.workspaces.Workspace;
 import org.apache.royale.compiler.problems.ConfigurationProblem;
 import org.apache.royale.compiler.problems.FileNotFoundProblem;
@@ -113,6 +125,7 @@ import org.apache.royale.compiler.targets.ITargetSettings;
 import org.apache.royale.compiler.tree.as.IASNode;
 import org.apache.royale.compiler.units.ICompilationUnit;
 import org.apache.royale.compiler.units.ICompilationUnit.UnitType;
+import org.apache.royale.compiler.units.requests.IFileScopeRequestResult;
 import org.apache.royale.compiler.workspaces.IWorkspace;
 import org.apache.royale.utils.FilenameNormalization;
 import org.eclipse.lsp4j.ClientCapabilities;
@@ -145,6 +158,8 @@ import org.eclipse.lsp4j.DocumentSymbolParams;
 import org.eclipse.lsp4j.ExecuteCommandParams;
 import org.eclipse.lsp4j.FileChangeType;
 import org.eclipse.lsp4j.FileEvent;
+import org.eclipse.lsp4j.FoldingRange;
+import org.eclipse.lsp4j.FoldingRangeRequestParams;
 import org.eclipse.lsp4j.Hover;
 import org.eclipse.lsp4j.HoverParams;
 import org.eclipse.lsp4j.ImplementationParams;
@@ -158,6 +173,7 @@ import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.ReferenceParams;
 import org.eclipse.lsp4j.RenameParams;
 import org.eclipse.lsp4j.SignatureHelp;
+import org.eclipse.lsp4j.SignatureInformation;
 import org.eclipse.lsp4j.SignatureHelpParams;
 import org.eclipse.lsp4j.SymbolInformation;
 import org.eclipse.lsp4j.TextDocumentClientCapabilities;
@@ -190,6 +206,10 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
     private static final String FRAMEWORKS_RELATIVE_PATH_CHILD = "./frameworks";
     private static final String SOURCE_DEFAULTS = "defaults";
     private static final String SOURCE_CONFIG = "config.as";
+    private static final long PROGRESS_INTERVAL_MS = 250;
+    private static final long UNLOAD_INTERVAL_MS = 10000;
+    private static final long WARM_UP_YIELD_MS = 50;
+    private static final int REQUEST_RESULT_CACHE_SIZE = 64;
 
     private ActionScriptLanguageClient languageClient;
     private String oldFrameworkSDKPath;
@@ -201,22 +221,89 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
     private boolean completionSupportsSnippets = false;
     private FileTracker fileTracker;
     private CompilerProblemFilter compilerProblemFilter = new CompilerProblemFilter();
-    private boolean initialized = false;
+    private volatile boolean initialized = false;
     private boolean frameworkSDKIsRoyale = false;
     private boolean frameworkSDKIsFallback = false;
     private RealTimeProblemsChecker realTimeProblemsChecker;
     private Future<?> realTimeProblemsFuture;
-    private Set<URI> notOnSourcePathSet = new HashSet<>();
+    private Set<URI> notOnSourcePathSet = ConcurrentHashMap.newKeySet();
     private boolean realTimeProblems = true;
     private boolean showFileOutsideSourcePath = true;
     private SimpleProjectConfigStrategy fallbackConfig;
     private CompilerShell compilerShell;
     private String jvmargs;
+    private ExecutorService projectExecutorService;
+    private ScheduledExecutorService projectUnloadExecutorService;
+    private ExecutorService projectWarmUpExecutorService;
+    private ExecutorService swcSymbolCacheExecutorService;
+    private AtomicInteger activeRequestCount = new AtomicInteger();
+    private Executor requestExecutor = (runnable) -> {
+        //requests from the client are counted so that background work can
+        //wait until they're done
+        activeRequestCount.incrementAndGet();
+        try {
+            compilerWorkspace.getExecutorService().execute(() -> {
+                try {
+                    runnable.run();
+                } finally {
+                    activeRequestCount.decrementAndGet();
+                }
+            });
+        } catch (RuntimeException e) {
+            activeRequestCount.decrementAndGet();
+            throw e;
+        }
+    };
+    private ProjectMemoryBudget projectMemoryBudget = new ProjectMemoryBudget();
+    private SWCSymbolDiskCache swcSymbolDiskCache = new SWCSymbolDiskCache();
+    private RequestResultCache<Hover> hoverCache = new RequestResultCache<>(REQUEST_RESULT_CACHE_SIZE);
+    private RequestResultCache<SignatureInformation> signatureCache = new RequestResultCache<>(
+            REQUEST_RESULT_CACHE_SIZE);
+    private SyntaxParseCache syntaxParseCache;
 
     public ActionScriptServices(IProjectConfigStrategyFactory factory) {
+        //independent projects are bootstrapped and checked for problems in
+        //parallel, but each project is only checked on one thread at a time
+        projectExecutorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                (runnable) -> {
+                    Thread thread = new Thread(runnable, "as3mxml-project");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        //projects that aren't being used may be unloaded when memory is low
+        projectUnloadExecutorService = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+            Thread thread = new Thread(runnable, "as3mxml-project-unload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        projectUnloadExecutorService.scheduleWithFixedDelay(() -> {
+            try {
+                unloadIdleProject();
+            } catch (Exception e) {
+                System.err.println("Exception while unloading idle project: " + e);
+                e.printStackTrace(System.err);
+            }
+        }, UNLOAD_INTERVAL_MS, UNLOAD_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        //after a project is loaded, its file scopes and the ASTs of its open
+        //files are built in the background, before they're requested
+        projectWarmUpExecutorService = Executors.newSingleThreadExecutor((runnable) -> {
+            Thread thread = new Thread(runnable, "as3mxml-project-warm-up");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        //resolving the definitions of SWCs that aren't in the symbol disk
+        //cache yet may be slow, and nothing waits for it
+        swcSymbolCacheExecutorService = Executors.newSingleThreadExecutor((runnable) -> {
+            Thread thread = new Thread(runnable, "as3mxml-swc-symbol-cache");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
         compilerWorkspace = new Workspace();
         compilerWorkspace.setASDocDelegate(new VSCodeASDocDelegate(compilerWorkspace));
         fileTracker = new FileTracker(compilerWorkspace);
+        syntaxParseCache = new SyntaxParseCache(fileTracker);
         actionScriptProjectManager = new ActionScriptProjectManager(fileTracker, factory,
                 (projectData) -> onAddProject(projectData), (projectData) -> onRemoveProject(projectData));
         updateFrameworkSDK();
@@ -228,6 +315,24 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
 
     private boolean onAddProject(ActionScriptProjectData projectData) {
         //let's get the code intelligence up and running!
+        //when a workspace contains multiple projects, they don't need to
+        //wait for each other to load their libraries and build
+        projectExecutorService.submit(() -> {
+            try {
+                bootstrapProject(projectData);
+            } catch (Exception e) {
+                System.err.println("Exception while bootstrapping project: " + projectData.projectRoot);
+                e.printStackTrace(System.err);
+            }
+        });
+        return true;
+    }
+
+    private void bootstrapProject(ActionScriptProjectData projectData) {
+        if (!actionScriptProjectManager.getAllProjectData().contains(projectData)) {
+            //the project was removed before it could be bootstrapped
+            return;
+        }
         Path path = getMainCompilationUnitPath(projectData);
         if (path != null) {
             String normalizedPath = FilenameNormalization.normalize(path.toAbsolutePath().toString());
@@ -236,13 +341,165 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
         }
 
         checkProjectForProblems(projectData);
-        return true;
+
+        //remember the symbols in the project's libraries so that the next
+        //time the language server starts, they're available immediately
+        ILspProject project = projectData.project;
+        if (project != null) {
+            swcSymbolCacheExecutorService.submit(() -> {
+                if (projectData.project != project) {
+                    //the project was unloaded or replaced
+                    return;
+                }
+                try {
+                    swcSymbolDiskCache.update(projectData.projectRoot, project.getCompilationUnits(),
+                            compilerWorkspace);
+                } catch (Exception e) {
+                    System.err.println("Exception while caching SWC symbols: " + projectData.projectRoot);
+                    e.printStackTrace(System.err);
+                }
+            });
+        }
+    }
+
+    private void warmUpProjectInBackground(ActionScriptProjectData projectData, ILspProject project) {
+        projectWarmUpExecutorService.submit(() -> {
+            try {
+                warmUpProject(projectData, project);
+            } catch (InterruptedException e) {
+                //shutting down
+            } catch (Exception e) {
+                System.err.println("Exception while warming up project: " + projectData.projectRoot);
+                e.printStackTrace(System.err);
+            }
+        });
+    }
+
+    /**
+     * Builds the file scope of every source file in the project, and the full
+     * AST of each open file, so that the first requests after the project is
+     * loaded don't need to wait for them. Yields to requests from the client,
+     * and stops if the project is unloaded or replaced.
+     */
+    private void warmUpProject(ActionScriptProjectData projectData, ILspProject project) throws InterruptedException {
+        Set<String> openFilePaths = new HashSet<>();
+        for (Path openFilePath : fileTracker.getOpenFiles()) {
+            openFilePaths.add(FilenameNormalization.normalize(openFilePath.toAbsolutePath().toString()));
+        }
+        List<ICompilationUnit> openUnits = new ArrayList<>();
+        List<ICompilationUnit> otherUnits = new ArrayList<>();
+        compilerWorkspace.startBuilding();
+        try {
+            for (ICompilationUnit unit : project.getCompilationUnits()) {
+                if (unit == null || UnitType.SWC_UNIT.equals(unit.getCompilationUnitType())) {
+                    continue;
+                }
+                if (openFilePaths.contains(unit.getAbsoluteFilename())) {
+                    openUnits.add(unit);
+                } else {
+                    otherUnits.add(unit);
+                }
+            }
+        } finally {
+            compilerWorkspace.doneBuilding();
+        }
+        //open files are most likely to be requested first
+        List<ICompilationUnit> units = new ArrayList<>(openUnits);
+        units.addAll(otherUnits);
+        for (int i = 0; i < units.size(); i++) {
+            while (activeRequestCount.get() > 0) {
+                Thread.sleep(WARM_UP_YIELD_MS);
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (projectData.project != project) {
+                //the project was unloaded or replaced
+                return;
+            }
+            ICompilationUnit unit = units.get(i);
+            //each unit is built separately so that file changes don't need to
+            //wait for the whole project
+            compilerWorkspace.startBuilding();
+            try {
+                unit.getFileScopeRequest().get();
+                if (i < openUnits.size()) {
+                    ASTUtils.getCompilationUnitAST(unit);
+                    unit.getOutgoingDependenciesRequest().get();
+                }
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                //problems will be reported when the project is checked
+            } finally {
+                compilerWorkspace.doneBuilding();
+            }
+        }
     }
 
     private boolean onRemoveProject(ActionScriptProjectData projectData) {
         return true;
     }
 
+    /**
+     * If the heap is over budget, unloads the least recently used project
+     * that has no open files. Only a summary of its top-level symbols is kept
+     * for workspace symbol queries, and it is loaded again when one of its
+     * files is opened.
+     */
+    private void unloadIdleProject() {
+        if (!projectMemoryBudget.isOverBudget()) {
+            return;
+        }
+        ActionScriptProjectData projectData = projectMemoryBudget.findProjectToUnload(
+                actionScriptProjectManager.getAllProjectData(),
+                (otherProjectData) -> actionScriptProjectManager.hasOpenFilesForProject(otherProjectData));
+        if (projectData == null) {
+            return;
+        }
+        synchronized (projectData) {
+            ILspProject project = projectData.project;
+            if (project == null || actionScriptProjectManager.hasOpenFilesForProject(projectData)) {
+                return;
+            }
+            Map<String, SymbolInformation> unloadedSymbols = new HashMap<>();
+            compilerWorkspace.startBuilding();
+            try {
+                for (ICompilationUnit unit : project.getCompilationUnits()) {
+                    if (unit == null || UnitType.SWC_UNIT.equals(unit.getCompilationUnitType())) {
+                        //the disk cache already has the symbols from SWCs
+                        continue;
+                    }
+                    IFileScopeRequestResult fileScope = null;
+                    try {
+                        fileScope = unit.getFileScopeRequest().get();
+                    } catch (Exception e) {
+                        continue;
+                    }
+                    for (IDefinition definition : fileScope.getExternallyVisibleDefinitions()) {
+                        SymbolInformation symbol = actionScriptProjectManager
+                                .definitionToSymbolInformation(definition, project);
+                        if (symbol != null) {
+                            unloadedSymbols.put(definition.getQualifiedName(), symbol);
+                        }
+                    }
+                }
+            } finally {
+                compilerWorkspace.doneBuilding();
+            }
+            synchronized (this) {
+                //the options are kept, so getProject() will create a new
+                //project when it is needed again
+                projectData.cleanup();
+                //unloading is meant to save memory, so SWCs that aren't used
+                //by other projects shouldn't be kept
+                SWCUsageTracker.getInstance(compilerWorkspace).evictUnused();
+            }
+            projectData.unloadedSymbols = unloadedSymbols;
+            projectMemoryBudget.projectUnloaded();
+        }
+    }
+
     public void removeWorkspaceFolder(WorkspaceFolder folder) {
         actionScriptProjectManager.removeWorkspaceFolder(folder);
     }
@@ -273,6 +530,13 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
     }
 
     public void shutdown() {
+        ASDocCommentCache asDocCommentCache = ASDocCommentCache.getInstance();
+        System.err.println("ASDoc comment cache: " + asDocCommentCache.getHitCount() + " hits, "
+                + asDocCommentCache.getMissCount() + " misses, " + asDocCommentCache.size() + " comments");
+        projectExecutorService.shutdownNow();
+        projectUnloadExecutorService.shutdownNow();
+        projectWarmUpExecutorService.shutdownNow();
+        swcSymbolCacheExecutorService.shutdownNow();
         if (compilerShell != null) {
             compilerShell.dispose();
             compilerShell = null;
@@ -292,7 +556,7 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
      */
     @Override
     public CompletableFuture<Either<List<CompletionItem>, CompletionList>> completion(CompletionParams params) {
-        return CompletableFutures.computeAsync(compilerWorkspace.getExecutorService(), cancelToken -> {
+        return CompletableFutures.computeAsync(requestExecutor, cancelToken -> {
             cancelToken.checkCanceled();
 
             //make sure that the latest changes have been passed to
@@ -327,7 +591,7 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
      */
     @Override
     public CompletableFuture<Hover> hover(HoverParams params) {
-        return CompletableFutures.computeAsync(compilerWorkspace.getExecutorService(), cancelToken -> {
+        return CompletableFutures.computeAsync(requestExecutor, cancelToken -> {
             cancelToken.checkCanceled();
 
             //make sure that the latest changes have been passed to
@@ -338,7 +602,7 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
 
             compilerWorkspace.startBuilding();
             try {
-                HoverProvider provider = new HoverProvider(actionScriptProjectManager, fileTracker);
+                HoverProvider provider = new HoverProvider(actionScriptProjectManager, fileTracker, hoverCache);
                 return provider.hover(params, cancelToken);
             } finally {
                 compilerWorkspace.doneBuilding();
@@ -354,7 +618,7 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
      */
     @Override
     public CompletableFuture<SignatureHelp> signatureHelp(SignatureHelpParams params) {
-        return CompletableFutures.computeAsync(compilerWorkspace.getExecutorService(), cancelToken -> {
+        return CompletableFutures.computeAsync(requestExecutor, cancelToken -> {
             cancelToken.checkCanceled();
 
             //make sure that the latest changes have been passed to
@@ -365,7 +629,8 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
 
             compilerWorkspace.startBuilding();
             try {
-                SignatureHelpProvider provider = new SignatureHelpProvider(actionScriptProjectManager, fileTracker);
+                SignatureHelpProvider provider = new SignatureHelpProvider(actionScriptProjectManager, fileTracker,
+                        signatureCache);
                 return provider.signatureHelp(params, cancelToken);
             } finally {
                 compilerWorkspace.doneBuilding();
@@ -380,7 +645,7 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
     @Override
     public CompletableFuture<Either<List<? extends Location>, List<? extends LocationLink>>> definition(
             DefinitionParams params) {
-        return CompletableFutures.computeAsync(compilerWorkspace.getExecutorService(), cancelToken -> {
+        return CompletableFutures.computeAsync(requestExecutor, cancelToken -> {
             cancelToken.checkCanceled();
 
             //make sure that the latest changes have been passed to
@@ -406,7 +671,7 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
     @Override
     public CompletableFuture<Either<List<? extends Location>, List<? extends LocationLink>>> typeDefinition(
             TypeDefinitionParams params) {
-        return CompletableFutures.computeAsync(compilerWorkspace.getExecutorService(), cancelToken -> {
+        return CompletableFutures.computeAsync(requestExecutor, cancelToken -> {
             cancelToken.checkCanceled();
 
             //make sure that the latest changes have been passed to
@@ -431,7 +696,7 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
     @Override
     public CompletableFuture<Either<List<? extends Location>, List<? extends LocationLink>>> implementation(
             ImplementationParams params) {
-        return CompletableFutures.computeAsync(compilerWorkspace.getExecutorService(), cancelToken -> {
+        return CompletableFutures.computeAsync(requestExecutor, cancelToken -> {
             cancelToken.checkCanceled();
 
             //make sure that the latest changes have been passed to
@@ -457,7 +722,7 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
      */
     @Override
     public CompletableFuture<List<? extends Location>> references(ReferenceParams params) {
-        return CompletableFutures.computeAsync(compilerWorkspace.getExecutorService(), cancelToken -> {
+        return CompletableFutures.computeAsync(requestExecutor, cancelToken -> {
             cancelToken.checkCanceled();
 
             //make sure that the latest changes have been passed to
@@ -476,6 +741,26 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
         });
     }
 
+    /**
+     * Finds the ranges that may be folded in a document that isn't in any
+     * project. Only the document's tokens are needed, so the file isn't
+     * compiled.
+     */
+    @Override
+    public CompletableFuture<List<FoldingRange>> foldingRange(FoldingRangeRequestParams params) {
+        return CompletableFutures.computeAsync(requestExecutor, cancelToken -> {
+            cancelToken.checkCanceled();
+
+            compilerWorkspace.startBuilding();
+            try {
+                FoldingRangeProvider provider = new FoldingRangeProvider(actionScriptProjectManager, syntaxParseCache);
+                return provider.foldingRange(params, cancelToken);
+            } finally {
+                compilerWorkspace.doneBuilding();
+            }
+        });
+    }
+
     /**
      * This feature is not implemented at this time.
      */
@@ -489,7 +774,7 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
      */
     @Override
     public CompletableFuture<List<? extends SymbolInformation>> symbol(WorkspaceSymbolParams params) {
-        return CompletableFutures.computeAsync(compilerWorkspace.getExecutorService(), cancelToken -> {
+        return CompletableFutures.computeAsync(requestExecutor, cancelToken -> {
             cancelToken.checkCanceled();
 
             //make sure that the latest changes have been passed to
@@ -500,7 +785,8 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
 
             compilerWorkspace.startBuilding();
             try {
-                WorkspaceSymbolProvider provider = new WorkspaceSymbolProvider(actionScriptProjectManager);
+                WorkspaceSymbolProvider provider = new WorkspaceSymbolProvider(actionScriptProjectManager,
+                        swcSymbolDiskCache);
                 return provider.workspaceSymbol(params, cancelToken);
             } finally {
                 compilerWorkspace.doneBuilding();
@@ -515,7 +801,7 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
     @Override
     public CompletableFuture<List<Either<SymbolInformation, DocumentSymbol>>> documentSymbol(
             DocumentSymbolParams params) {
-        return CompletableFutures.computeAsync(compilerWorkspace.getExecutorService(), cancelToken -> {
+        return CompletableFutures.computeAsync(requestExecutor, cancelToken -> {
             cancelToken.checkCanceled();
 
             //make sure that the latest changes have been passed to
@@ -534,7 +820,7 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
                     //ignore
                 }
                 DocumentSymbolProvider provider = new DocumentSymbolProvider(actionScriptProjectManager,
-                        hierarchicalDocumentSymbolSupport);
+                        syntaxParseCache, hierarchicalDocumentSymbolSupport);
                 return provider.documentSymbol(params, cancelToken);
             } finally {
                 compilerWorkspace.doneBuilding();
@@ -547,7 +833,7 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
      */
     @Override
     public CompletableFuture<List<Either<Command, CodeAction>>> codeAction(CodeActionParams params) {
-        return CompletableFutures.computeAsync(compilerWorkspace.getExecutorService(), cancelToken -> {
+        return CompletableFutures.computeAsync(requestExecutor, cancelToken -> {
             cancelToken.checkCanceled();
 
             //make sure that the latest changes have been passed to
@@ -611,7 +897,7 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
      */
     @Override
     public CompletableFuture<WorkspaceEdit> rename(RenameParams params) {
-        return CompletableFutures.computeAsync(compilerWorkspace.getExecutorService(), cancelToken -> {
+        return CompletableFutures.computeAsync(requestExecutor, cancelToken -> {
             cancelToken.checkCanceled();
 
             //make sure that the latest changes have been passed to
@@ -704,6 +990,7 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
         String normalizedPath = FilenameNormalization.normalize(path.toAbsolutePath().toString());
         IFileSpecification fileSpec = fileTracker.getFileSpecification(normalizedPath);
         compilerWorkspace.fileChanged(fileSpec);
+        actionScriptProjectManager.didChangeSourceFile(normalizedPath);
 
         //if it's an included file, switch to the parent file
         IncludeFileData includeFileData = projectData.includedFiles.get(path.toString());
@@ -749,14 +1036,14 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
         String normalizedChangedPathAsString = FilenameNormalization.normalize(path.toAbsolutePath().toString());
         IFileSpecification fileSpec = fileTracker.getFileSpecification(normalizedChangedPathAsString);
 
-        //if we're checking a compilation unit for problems in real time, and
-        //the path of this new change is the same, we'll re-check for problems
-        //when its done
+        //if we're checking this file's compilation unit for problems in real
+        //time, we'll re-check for problems when its done
         //this is the fastest way to check for problems while the user is typing
 
         if (realTimeProblems && realTimeProblemsChecker != null) {
             synchronized (realTimeProblemsChecker) {
-                IFileSpecification otherFileSpec = realTimeProblemsChecker.getFileSpecification();
+                IFileSpecification otherFileSpec = realTimeProblemsChecker
+                        .getFileSpecification(normalizedChangedPathAsString);
                 if (otherFileSpec != null && otherFileSpec.getPath().equals(normalizedChangedPathAsString)) {
                     realTimeProblemsChecker.setFileSpecification(fileSpec);
                     return;
@@ -780,6 +1067,7 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
         }
 
         compilerWorkspace.fileChanged(fileSpec);
+        actionScriptProjectManager.didChangeSourceFile(normalizedChangedPathAsString);
 
         if (unit == null) {
             //we don't have a compilation unit for this yet, but if we check the
@@ -788,12 +1076,13 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
             checkProjectForProblems(projectData);
         } else if (realTimeProblems) {
             if (realTimeProblemsChecker == null) {
-                realTimeProblemsChecker = new RealTimeProblemsChecker(languageClient, compilerProblemFilter);
+                realTimeProblemsChecker = new RealTimeProblemsChecker(languageClient, compilerProblemFilter,
+                        fileTracker, actionScriptProjectManager);
                 realTimeProblemsFuture = compilerWorkspace.getExecutorService().submit(realTimeProblemsChecker);
             }
-            if (projectData.equals(actionScriptProjectManager.getFallbackProjectData())) {
-                realTimeProblemsChecker.clear();
-            } else {
+            //files in the fallback project aren't checked in real time, but
+            //other files that are still being checked shouldn't be affected
+            if (!projectData.equals(actionScriptProjectManager.getFallbackProjectData())) {
                 realTimeProblemsChecker.setCompilationUnit(unit, fileSpec, projectData);
             }
         } else if (realTimeProblemsFuture != null) {
@@ -921,6 +1210,10 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
      * errors on the whole project.
      */
     public void didChangeWatchedFiles(DidChangeWatchedFilesParams params) {
+        //the versions of open files don't change when other files are
+        //modified, so results cached by range may be out of date
+        hoverCache.clear();
+
         Set<ActionScriptProjectData> foldersToCheck = new HashSet<>();
 
         for (FileEvent event : params.getChanges()) {
@@ -929,6 +1222,11 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
                 continue;
             }
 
+            //a new config file may add a project that didn't exist before
+            if (event.getType().equals(FileChangeType.Created)) {
+                actionScriptProjectManager.didCreateFile(changedPath);
+            }
+
             //first check if any project's config file has changed
             for (ActionScriptProjectData projectData : actionScriptProjectManager.getAllProjectData()) {
                 IProjectConfigStrategy config = projectData.config;
@@ -952,6 +1250,7 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
                     //changing the project configuration will force the
                     //change to be detected, so let's do that manually.
                     for (ActionScriptProjectData projectData : allProjectData) {
+                        projectData.librariesChanged = true;
                         projectData.config.forceChanged();
                     }
                     foldersToCheck.addAll(allProjectData);
@@ -967,6 +1266,7 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
                         (changeType.equals(FileChangeType.Changed) && !changedPath.toFile().exists())) {
                     IFileSpecification fileSpec = fileTracker.getFileSpecification(normalizedChangedPathAsString);
                     compilerWorkspace.fileRemoved(fileSpec);
+                    actionScriptProjectManager.didChangeSourceFile(normalizedChangedPathAsString);
                     clearProblemsForURI(Paths.get(normalizedChangedPathAsString).toUri());
                     //deleting a file may change errors in other existing files,
                     //so we need to do a full check
@@ -974,12 +1274,14 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
                 } else if (event.getType().equals(FileChangeType.Created)) {
                     IFileSpecification fileSpec = fileTracker.getFileSpecification(normalizedChangedPathAsString);
                     compilerWorkspace.fileAdded(fileSpec);
+                    actionScriptProjectManager.didChangeSourceFile(normalizedChangedPathAsString);
                     //creating a file may change errors in other existing files,
                     //so we need to do a full check
                     foldersToCheck.addAll(allProjectData);
                 } else if (changeType.equals(FileChangeType.Changed)) {
                     IFileSpecification fileSpec = fileTracker.getFileSpecification(normalizedChangedPathAsString);
                     compilerWorkspace.fileChanged(fileSpec);
+                    actionScriptProjectManager.didChangeSourceFile(normalizedChangedPathAsString);
                     foldersToCheck.addAll(allProjectData);
                 }
             } else if (changeType.equals(FileChangeType.Created) && java.nio.file.Files.isDirectory(changedPath)) {
@@ -993,6 +1295,7 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
                                     || normalizedSubPath.endsWith(FILE_EXTENSION_MXML)) {
                                 IFileSpecification fileSpec = fileTracker.getFileSpecification(normalizedSubPath);
                                 compilerWorkspace.fileAdded(fileSpec);
+                                actionScriptProjectManager.didChangeSourceFile(normalizedSubPath);
                             }
                             return FileVisitResult.CONTINUE;
                         }
@@ -1037,6 +1340,7 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
                                 foldersToCheck.add(projectData);
 
                                 if (UnitType.SWC_UNIT.equals(unitType)) {
+                                    projectData.librariesChanged = true;
                                     projectData.config.forceChanged();
                                 }
                             }
@@ -1050,11 +1354,16 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
                     fileToRemove = FilenameNormalization.normalize(pathToRemove.toAbsolutePath().toString());
                     IFileSpecification fileSpec = fileTracker.getFileSpecification(fileToRemove);
                     compilerWorkspace.fileRemoved(fileSpec);
+                    actionScriptProjectManager.didChangeSourceFile(fileToRemove);
                     clearProblemsForURI(pathToRemove.toUri());
                 }
             }
         }
         for (ActionScriptProjectData projectData : foldersToCheck) {
+            if (projectData.unloadedSymbols != null) {
+                //an unloaded project is checked when it is loaded again
+                continue;
+            }
             checkProjectForProblems(projectData);
         }
     }
@@ -1069,6 +1378,7 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
         this.updateRealTimeProblems(settings);
         this.updateSourcePathWarning(settings);
         this.updateJVMArgs(settings);
+        this.updateProjectMemoryBudget(settings);
     }
 
     @Override
@@ -1104,20 +1414,39 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
         updateFrameworkSDK();
         for (ActionScriptProjectData projectData : actionScriptProjectManager.getAllProjectData()) {
             if (forceChange) {
+                //the options may be the same, but the SDK's libraries may
+                //have changed, so a new project is always created
+                projectData.librariesChanged = true;
                 IProjectConfigStrategy config = projectData.config;
                 config.forceChanged();
             }
-            checkProjectForProblems(projectData);
+            if (projectData.unloadedSymbols != null) {
+                //an unloaded project is checked when it is loaded again
+                continue;
+            }
+            checkProjectForProblemsInParallel(projectData);
         }
         if (fallbackConfig != null) {
+            ActionScriptProjectData projectData = actionScriptProjectManager.getFallbackProjectData();
             if (forceChange) {
+                projectData.librariesChanged = true;
                 fallbackConfig.forceChanged();
             }
-            ActionScriptProjectData projectData = actionScriptProjectManager.getFallbackProjectData();
-            checkProjectForProblems(projectData);
+            checkProjectForProblemsInParallel(projectData);
         }
     }
 
+    private void checkProjectForProblemsInParallel(ActionScriptProjectData projectData) {
+        projectExecutorService.submit(() -> {
+            try {
+                checkProjectForProblems(projectData);
+            } catch (Exception e) {
+                System.err.println("Exception while checking project for problems: " + projectData.projectRoot);
+                e.printStackTrace(System.err);
+            }
+        });
+    }
+
     private void updateFrameworkSDK() {
         String frameworkSDKPath = System.getProperty(PROPERTY_FRAMEWORK_LIB);
         if (frameworkSDKPath == null || frameworkSDKPath.equals(oldFrameworkSDKPath)) {
@@ -1364,20 +1693,148 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
         sourcePathWatcherThread.start();
     }
 
-    private void refreshProjectOptions(ActionScriptProjectData projectData) {
+    private synchronized void refreshProjectOptions(ActionScriptProjectData projectData) {
         IProjectConfigStrategy currentConfig = projectData.config;
         ProjectOptions projectOptions = projectData.options;
         if (!currentConfig.getChanged() && projectOptions != null) {
+            if (currentConfig instanceof SimpleProjectConfigStrategy) {
+                SimpleProjectConfigStrategy simpleConfig = (SimpleProjectConfigStrategy) currentConfig;
+                if (simpleConfig.getIncludeSourcesChanged()) {
+                    updateIncludeSources(simpleConfig, projectData);
+                }
+            }
             //the options are fully up-to-date
             return;
         }
+        ProjectOptions newOptions = null;
+        if (!frameworkSDKIsFallback) {
+            newOptions = currentConfig.getOptions();
+        }
+        //the options don't change when a library is modified, but the
+        //project needs to be created again to detect the change
+        boolean librariesChanged = projectData.librariesChanged;
+        projectData.librariesChanged = false;
+        if (!librariesChanged && projectData.project != null && projectOptions != null && newOptions != null) {
+            if (ProjectOptionsUtils.isEquivalent(projectOptions, newOptions)) {
+                //nothing that affects the project has changed
+                projectData.options = newOptions;
+                return;
+            }
+            if (ProjectOptionsUtils.canReconfigure(projectOptions, newOptions)
+                    && reconfigureProject(projectData, newOptions)) {
+                return;
+            }
+        }
         //if the configuration changed, start fresh with a whole new project
         projectData.cleanup();
-        if (frameworkSDKIsFallback) {
-            projectData.options = null;
-        } else {
-            projectData.options = currentConfig.getOptions();
+        projectData.options = newOptions;
+    }
+
+    /**
+     * Applies new options to the existing project, which keeps its libraries
+     * and compilation units, instead of creating a new project. Returns false
+     * if the project could not be configured. In that case, a new project
+     * should be created, which reports any configuration problems.
+     */
+    private boolean reconfigureProject(ActionScriptProjectData projectData, ProjectOptions newOptions) {
+        ILspProject project = projectData.project;
+        String oldUserDir = System.getProperty("user.dir");
+        //the project must not be built while it is only partially configured
+        compilerWorkspace.startIdleState();
+        try {
+            System.setProperty("user.dir", projectData.projectRoot.toString());
+            RoyaleProjectConfigurator configurator = CompilerProjectUtils.createConfigurator(project, newOptions);
+            if (!configurator.applyToProject(project)) {
+                return false;
+            }
+            Configuration configuration = configurator.getConfiguration();
+            if (configuration == null) {
+                return false;
+            }
+            ITarget.TargetType targetType = ITarget.TargetType.SWF;
+            if (newOptions.type.equals(ProjectType.LIB)) {
+                String output = configuration.getOutput();
+                if (output == null || output.length() == 0) {
+                    return false;
+                }
+                targetType = ITarget.TargetType.SWC;
+            } else if (configuration.getTargetFile() == null) {
+                return false;
+            }
+            ITargetSettings targetSettings = configurator.getTargetSettings(targetType);
+            if (targetSettings == null) {
+                return false;
+            }
+            project.setTargetSettings(targetSettings);
+            ProblemQuery problemQuery = new ProblemQuery(configurator.getCompilerProblemSettings());
+            problemQuery.addAll(configurator.getConfigurationProblems());
+            publishDiagnosticsForProblemQuery(problemQuery, projectData.configProblemTracker, projectData, true);
+
+            projectData.options = newOptions;
+            projectData.configurator = configurator;
+            //the source and library paths may have changed
+            for (WatchKey watchKey : projectData.sourceOrLibraryPathWatchKeys.keySet()) {
+                watchKey.cancel();
+            }
+            projectData.sourceOrLibraryPathWatchKeys.clear();
+            //the library path may have changed which classes are in each
+            //MXML namespace
+            projectData.mxmlNamespaceCache.clear();
+            //the target settings may have changed the library's roots
+            projectData.reachableUnitsCache.clear();
+            prepareNewProject(projectData);
+            SWCUsageTracker.getInstance(compilerWorkspace).acquireAll(projectData,
+                    project.getCompilationUnits());
+        } finally {
+            System.setProperty("user.dir", oldUserDir);
+            //if the project could not be configured, the caller deletes it
+            compilerWorkspace.endIdleState(IWorkspace.NIL_COMPILATIONUNITS_TO_UPDATE);
         }
+        //the same project now has a different source path
+        actionScriptProjectManager.invalidateSourcePathTrie();
+        //compilation units may have been added or removed without any
+        //changes to files
+        projectData.typeHierarchyIndex.clear();
+        projectData.typeNameIndex.clear();
+        return true;
+    }
+
+    /**
+     * Loose files that are opened or closed are added to or removed from the
+     * existing project, which keeps the framework libraries and any
+     * compilation units that have already been built.
+     */
+    private void updateIncludeSources(SimpleProjectConfigStrategy simpleConfig, ActionScriptProjectData projectData) {
+        ILspProject project = projectData.project;
+        if (project == null) {
+            //there's nothing to update, so the next project will be
+            //created with the new options instead
+            projectData.options = simpleConfig.getOptions();
+            return;
+        }
+        List<File> includeSources = new ArrayList<>();
+        for (Path includeSourcePath : simpleConfig.getIncludeSources()) {
+            includeSources.add(new File(FilenameNormalization.normalize(includeSourcePath.toAbsolutePath().toString())));
+        }
+        compilerWorkspace.startIdleState();
+        try {
+            project.setIncludeSources(includeSources.toArray(new File[includeSources.size()]));
+            //the rooted compilation units of a library come from its target
+            //settings, so they need the same files
+            project.setTargetSettings(
+                    IncludeSourcesTargetSettings.replaceIncludeSources(project.getTargetSettings(), includeSources));
+        } catch (InterruptedException e) {
+            //try again with a whole new project
+            simpleConfig.forceChanged();
+        } finally {
+            compilerWorkspace.endIdleState(IWorkspace.NIL_COMPILATIONUNITS_TO_UPDATE);
+        }
+        //the same project now has different include sources
+        actionScriptProjectManager.invalidateSourcePathTrie();
+        //compilation units may have been added or removed without any
+        //changes to files
+        projectData.typeHierarchyIndex.clear();
+        projectData.typeNameIndex.clear();
     }
 
     private void addCompilerProblem(ICompilerProblem problem, PublishDiagnosticsParams publish, boolean isConfigFile) {
@@ -1395,53 +1852,24 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
 
     private void checkFilePathForSyntaxProblems(Path path, ActionScriptProjectData projectData,
             ProblemQuery problemQuery) {
-        ASParser parser = null;
-        Reader reader = fileTracker.getReader(path);
-        if (reader != null) {
-            StreamingASTokenizer tokenizer = null;
-            ASToken[] tokens = null;
-            try {
-                tokenizer = StreamingASTokenizer.createForRepairingASTokenizer(reader, path.toString(), null);
-                tokens = tokenizer.getTokens(reader);
-            } finally {
-                try {
-                    reader.close();
-                } catch (IOException e) {
-                }
-            }
-            if (tokenizer.hasTokenizationProblems()) {
-                problemQuery.addAll(tokenizer.getTokenizationProblems());
-            }
-            RepairingTokenBuffer buffer = new RepairingTokenBuffer(tokens);
-
-            Workspace workspace = new Workspace();
-            workspace.endRequest();
-            parser = new ASParser(workspace, buffer);
-            FileNode node = new FileNode(workspace);
-            try {
-                parser.file(node);
-            } catch (Exception e) {
-                parser = null;
-                System.err.println("Failed to parse file (" + path.toString() + "): " + e);
-                e.printStackTrace(System.err);
-            }
-            //if an error occurred above, parser will be null
-            if (parser != null) {
-                problemQuery.addAll(parser.getSyntaxProblems());
-            }
+        //the file is parsed again only if it has changed since it was last
+        //checked for problems
+        ParseResult parseResult = syntaxParseCache.getParseResult(path);
+        if (parseResult != null) {
+            problemQuery.addAll(parseResult.problems);
         }
 
         ProjectOptions projectOptions = projectData.options;
         ICompilerProblem syntaxProblem = null;
-        if (reader == null) {
+        if (parseResult == null) {
             //the file does not exist
             syntaxProblem = new FileNotFoundProblem(path.toString());
-        } else if (parser == null && projectOptions == null) {
+        } else if (parseResult.fileNode == null && projectOptions == null) {
             //we couldn't load the project configuration and we couldn't parse
             //the file. we can't provide any information here.
             syntaxProblem = new SyntaxFallbackProblem(path.toString(),
                     "Failed to load project configuration options. Error checking has been disabled.");
-        } else if (parser == null) {
+        } else if (parseResult.fileNode == null) {
             //something terrible happened, and this is the best we can do
             syntaxProblem = new SyntaxFallbackProblem(path.toString(),
                     "A fatal error occurred while checking for simple syntax problems.");
@@ -1458,7 +1886,6 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
                     "A fatal error occurred. Error checking has been disabled, except for simple syntax problems.");
         }
         problemQuery.add(syntaxProblem);
-        reader = null;
     }
 
     private Path getMainCompilationUnitPath(ActionScriptProjectData projectData) {
@@ -1480,8 +1907,12 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
      * been created, returns the existing project *unless* the configuration has
      * changed. When the configuration has changed, destroys the old project and
      * creates a new one.
+     * 
+     * Projects are configured one at a time because the configurator resolves
+     * relative paths using the user.dir system property, which is shared by
+     * all projects.
      */
-    private ILspProject getProject(ActionScriptProjectData projectData) {
+    private synchronized ILspProject getProject(ActionScriptProjectData projectData) {
         if (projectData == null) {
             System.err.println("Cannot find workspace for project.");
             return null;
@@ -1633,10 +2064,23 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
 
             projectData.project = project;
             projectData.configurator = configurator;
+            projectData.unloadedSymbols = null;
+            //a new project shouldn't be unloaded before it is used
+            projectData.lastAccessTime = System.currentTimeMillis();
             prepareNewProject(projectData);
+            if (project != null) {
+                //SWCs that no project uses anymore are evicted
+                SWCUsageTracker.getInstance(compilerWorkspace).acquireAll(projectData,
+                        project.getCompilationUnits());
+            }
         } finally {
             compilerWorkspace.endIdleState(IWorkspace.NIL_COMPILATIONUNITS_TO_UPDATE);
         }
+        if (project != null) {
+            //the warm up doesn't wait for the project to be checked for
+            //problems, which may take much longer
+            warmUpProjectInBackground(projectData, project);
+        }
         return project;
     }
 
@@ -1646,59 +2090,89 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
         publish.setDiagnostics(diagnostics);
         publish.setUri(uri.toString());
         if (languageClient != null) {
-            languageClient.publishDiagnostics(publish);
+            DiagnosticsPublisher.getInstance(languageClient).publishDiagnostics(publish);
         }
     }
 
     private void checkProjectForProblems(ActionScriptProjectData projectData) {
-        //make sure that the latest changes have been passed to
-        //workspace.fileChanged() before proceeding
-        if (realTimeProblemsChecker != null) {
-            realTimeProblemsChecker.updateNow();
-        }
-
-        getProject(projectData);
-        ILspProject project = projectData.project;
-        ProjectOptions options = projectData.options;
-        if (project == null || options == null) {
-            //since we don't have a project, we don't have compilation units
-            //any existing problems should be considered stale and won't be
-            //updated until the configuration problems are fixed.
-            projectData.codeProblemTracker.releaseStale();
-            return;
-        }
-
-        ProblemQuery problemQuery = projectDataToProblemQuery(projectData);
-        compilerWorkspace.startBuilding();
-        try {
-            //start by making sure that all of the project's compilation units
-            //have been created. we'll check them for errors in a later step
-            populateCompilationUnits(project);
+        //a project may be checked by multiple threads, but not at the same time
+        synchronized (projectData) {
+            //make sure that the latest changes have been passed to
+            //workspace.fileChanged() before proceeding
+            if (realTimeProblemsChecker != null) {
+                realTimeProblemsChecker.updateNow();
+            }
 
-            //don't check compilation units for problems if the project itself
-            //has problems. the user should fix those first.
-            Collection<ICompilerProblem> fatalProblems = project.getFatalProblems();
-            if (fatalProblems != null) {
-                problemQuery.addAll(fatalProblems);
+            getProject(projectData);
+            ILspProject project = projectData.project;
+            ProjectOptions options = projectData.options;
+            if (project == null || options == null) {
+                //since we don't have a project, we don't have compilation units
+                //any existing problems should be considered stale and won't be
+                //updated until the configuration problems are fixed.
+                projectData.codeProblemTracker.releaseStale();
+                return;
             }
 
-            problemQuery.addAll(project.getProblems());
+            ProblemQuery problemQuery = projectDataToProblemQuery(projectData);
+            Set<URI> streamedURIs = new HashSet<>();
+            compilerWorkspace.startBuilding();
+            try {
+                //start by making sure that all of the project's compilation units
+                //have been created. we'll check them for errors in a later step
+                populateCompilationUnits(project);
+
+                //don't check compilation units for problems if the project itself
+                //has problems. the user should fix those first.
+                Collection<ICompilerProblem> fatalProblems = project.getFatalProblems();
+                if (fatalProblems != null) {
+                    problemQuery.addAll(fatalProblems);
+                }
+
+                problemQuery.addAll(project.getProblems());
 
-            Collection<ICompilerProblem> collectedProblems = new ArrayList<>();
-            project.collectProblems(collectedProblems);
-            problemQuery.addAll(collectedProblems);
+                Collection<ICompilerProblem> collectedProblems = new ArrayList<>();
+                project.collectProblems(collectedProblems);
+                problemQuery.addAll(collectedProblems);
 
-            if (!problemQuery.hasErrors()) {
-                checkReachableCompilationUnitsForErrors(problemQuery, projectData);
+                if (!problemQuery.hasErrors()) {
+                    checkReachableCompilationUnitsForErrors(problemQuery, projectData, streamedURIs);
+                }
+            } finally {
+                compilerWorkspace.doneBuilding();
+            }
+            //the final pass over all of the problems also clears any stale
+            //problems from files that no longer have any
+            Set<URI> publishedURIs = publishDiagnosticsForProblemQuery(problemQuery,
+                    projectData.codeProblemTracker, projectData, true);
+            streamedURIs.removeAll(publishedURIs);
+            for (URI uri : streamedURIs) {
+                clearProblemsForURI(uri);
             }
-        } finally {
-            compilerWorkspace.doneBuilding();
         }
-        publishDiagnosticsForProblemQuery(problemQuery, projectData.codeProblemTracker, projectData, true);
     }
 
-    private void publishDiagnosticsForProblemQuery(ProblemQuery problemQuery, ProblemTracker problemTracker,
+    private Set<URI> publishDiagnosticsForProblemQuery(ProblemQuery problemQuery, ProblemTracker problemTracker,
             ActionScriptProjectData projectData, boolean releaseStale) {
+        Map<URI, PublishDiagnosticsParams> filesMap = problemQueryToPublishDiagnostics(problemQuery, projectData);
+        for (URI uri : filesMap.keySet()) {
+            problemTracker.trackFileWithProblems(uri);
+        }
+        if (releaseStale) {
+            problemTracker.releaseStale();
+        } else {
+            problemTracker.makeStale();
+        }
+        if (languageClient != null) {
+            //only the files with problems that changed are sent
+            DiagnosticsPublisher diagnosticsPublisher = DiagnosticsPublisher.getInstance(languageClient);
+            filesMap.values().forEach(diagnosticsPublisher::publishDiagnostics);
+        }
+        return filesMap.keySet();
+    }
+
+    private Map<URI, PublishDiagnosticsParams> problemQueryToPublishDiagnostics(ProblemQuery problemQuery,
+            ActionScriptProjectData projectData) {
         Path projectRoot = projectData.projectRoot;
         String defaultsPathString = projectRoot.resolve(SOURCE_DEFAULTS).toString();
         //the drive letter may not match up, so just do a lowercase check
@@ -1733,17 +2207,37 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
                 filesMap.put(uri, params);
             }
             PublishDiagnosticsParams params = filesMap.get(uri);
-            problemTracker.trackFileWithProblems(uri);
             addCompilerProblem(problem, params, isConfigFile);
         }
-        if (releaseStale) {
-            problemTracker.releaseStale();
-        } else {
-            problemTracker.makeStale();
-        }
-        if (languageClient != null) {
-            filesMap.values().forEach(languageClient::publishDiagnostics);
-        }
+        return filesMap;
+    }
+
+    /**
+     * While the whole project is being checked, the problems for each
+     * compilation unit are published as soon as it has been checked, instead
+     * of waiting for all of the others. Returns the URIs that were published
+     * with problems.
+     */
+    private Set<URI> publishDiagnosticsForCompilationUnit(ICompilationUnit unit, List<ICompilerProblem> problems,
+            ActionScriptProjectData projectData) {
+        if (languageClient == null) {
+            return Collections.emptySet();
+        }
+        ProblemQuery unitProblemQuery = projectDataToProblemQuery(projectData);
+        unitProblemQuery.addAll(problems);
+        Map<URI, PublishDiagnosticsParams> filesMap = problemQueryToPublishDiagnostics(unitProblemQuery, projectData);
+        Set<URI> result = new HashSet<>(filesMap.keySet());
+        URI unitUri = Paths.get(unit.getAbsoluteFilename()).toUri();
+        if (!filesMap.containsKey(unitUri)) {
+            //clear any problems that this file had before
+            PublishDiagnosticsParams params = new PublishDiagnosticsParams();
+            params.setUri(unitUri.toString());
+            params.setDiagnostics(new ArrayList<>());
+            filesMap.put(unitUri, params);
+        }
+        DiagnosticsPublisher diagnosticsPublisher = DiagnosticsPublisher.getInstance(languageClient);
+        filesMap.values().forEach(diagnosticsPublisher::publishDiagnostics);
+        return result;
     }
 
     private ProblemQuery projectDataToProblemQuery(ActionScriptProjectData projectData) {
@@ -1789,19 +2283,17 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
     }
 
     private void checkReachableCompilationUnitsForErrors(ProblemQuery problemQuery,
-            ActionScriptProjectData projectData) {
+            ActionScriptProjectData projectData, Set<URI> streamedURIs) {
         if (!initialized) {
             //do this later because we can't publish diagnostics yet
             return;
         }
 
         ILspProject project = projectData.project;
-
         Set<ICompilationUnit> roots = new HashSet<>();
         try {
             if (projectData.options.type.equals(ProjectType.LIB)) {
-                Target target = (Target) project.createSWCTarget(project.getTargetSettings(), null);
-                roots.addAll(target.getRootedCompilationUnits().getUnits());
+                roots.addAll(projectData.reachableUnitsCache.getLibraryRoots(project));
             } else //app
             {
                 for (String file : projectData.options.files) {
@@ -1846,81 +2338,126 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
             roots.add(openUnit);
         }
 
-        //start fresh when checking all compilation units
+        //start fresh when checking all compilation units, but the includes of
+        //units that haven't changed are remembered by the cache
         projectData.includedFiles.clear();
 
+        //the fallback project is only checked for included files, so there's
+        //no need to report its progress
+        boolean reportProgress = languageClient != null
+                && !projectData.equals(actionScriptProjectManager.getFallbackProjectData());
+        String projectURI = projectData.projectRoot.toUri().toString();
         List<ICompilerProblem> problems = new ArrayList<>();
         List<ICompilationUnit> reachableUnits = new ArrayList<>();
-        //there shouldn't be any concurrent modification exceptions when looping
-        //over the reachable units, but to be safe, copy all of the compilation
-        //units to a new collection
-        reachableUnits.addAll(project.getReachableCompilationUnitsInSWFOrder(roots));
-        for (ICompilationUnit unit : reachableUnits) {
-            if (unit == null) {
-                continue;
+        try {
+            try {
+                //the reachable units are found again only if the roots or the
+                //dependencies of a unit have changed since the previous check
+                reachableUnits.addAll(projectData.reachableUnitsCache.getReachableCompilationUnitsInSWFOrder(project,
+                        roots));
+            } catch (InterruptedException e) {
+                return;
+            }
+            //check the files that are open in an editor first because those are
+            //the ones that the user is most likely to be looking at
+            List<ICompilationUnit> openUnits = new ArrayList<>();
+            List<ICompilationUnit> otherUnits = new ArrayList<>();
+            for (ICompilationUnit unit : reachableUnits) {
+                if (unit == null) {
+                    continue;
+                }
+                if (fileTracker.isOpen(Paths.get(unit.getAbsoluteFilename()))) {
+                    openUnits.add(unit);
+                } else {
+                    otherUnits.add(unit);
+                }
             }
+            reachableUnits.clear();
+            reachableUnits.addAll(openUnits);
+            reachableUnits.addAll(otherUnits);
+            int checkedCount = 0;
+            long lastProgressTime = 0;
+            for (ICompilationUnit unit : reachableUnits) {
+                long currentTime = System.currentTimeMillis();
+                if (reportProgress && currentTime - lastProgressTime >= PROGRESS_INTERVAL_MS) {
+                    lastProgressTime = currentTime;
+                    languageClient.checkProblemsProgress(
+                            new CheckProblemsProgress(projectURI, checkedCount, reachableUnits.size()));
+                }
+                checkedCount++;
 
-            UnitType unitType = unit.getCompilationUnitType();
-            if (!UnitType.AS_UNIT.equals(unitType) && !UnitType.MXML_UNIT.equals(unitType)) {
-                //compiled compilation units won't have problems
-                continue;
-            }
+                UnitType unitType = unit.getCompilationUnitType();
+                if (!UnitType.AS_UNIT.equals(unitType) && !UnitType.MXML_UNIT.equals(unitType)) {
+                    //compiled compilation units won't have problems
+                    continue;
+                }
 
-            Path unitPath = Paths.get(unit.getAbsoluteFilename());
-            URI unitUri = unitPath.toUri();
-            if (notOnSourcePathSet.contains(unitUri)) {
-                //if the file was not on the project's source path, clear out any
-                //errors that might have existed previously
-                notOnSourcePathSet.remove(unitUri);
+                Path unitPath = Paths.get(unit.getAbsoluteFilename());
+                URI unitUri = unitPath.toUri();
+                if (notOnSourcePathSet.contains(unitUri)) {
+                    //if the file was not on the project's source path, clear out any
+                    //errors that might have existed previously
+                    notOnSourcePathSet.remove(unitUri);
 
-                PublishDiagnosticsParams publish = new PublishDiagnosticsParams();
-                publish.setDiagnostics(new ArrayList<>());
-                publish.setUri(unitUri.toString());
-                if (languageClient != null) {
-                    languageClient.publishDiagnostics(publish);
+                    PublishDiagnosticsParams publish = new PublishDiagnosticsParams();
+                    publish.setDiagnostics(new ArrayList<>());
+                    publish.setUri(unitUri.toString());
+                    if (languageClient != null) {
+                        DiagnosticsPublisher.getInstance(languageClient).publishDiagnostics(publish);
+                    }
                 }
-            }
 
-            //we don't check for errors in the fallback project
-            if (projectData.equals(actionScriptProjectManager.getFallbackProjectData())) {
-                //normally, we look for included files after checking
-                //for errors, but since we're not checking for errors
-                //do it here instead
-                CompilationUnitUtils.findIncludedFiles(unit, projectData.includedFiles);
-
-                //there's a configuration setting that determines if we
-                //warn the user that a file is outside of the project's
-                //source path
-                if (showFileOutsideSourcePath) {
-                    notOnSourcePathSet.add(unitUri);
-                    if (actionScriptProjectManager.getAllProjectData().size() == 0) {
-                        SyntaxFallbackProblem problem = new SyntaxFallbackProblem(unitPath.toString(),
-                                "Some code intelligence features are disabled for this file. Open a workspace folder to enable all ActionScript & MXML features.");
-                        problemQuery.add(problem);
-                    } else {
-                        SyntaxFallbackProblem problem = new SyntaxFallbackProblem(unitPath.toString(), unitPath
-                                .getFileName()
-                                + " is not located in the workspace's source path. Some code intelligence features are disabled for this file.");
-                        problemQuery.add(problem);
+                //we don't check for errors in the fallback project
+                if (projectData.equals(actionScriptProjectManager.getFallbackProjectData())) {
+                    //normally, we look for included files after checking
+                    //for errors, but since we're not checking for errors
+                    //do it here instead
+                    projectData.includedFilesCache.findIncludedFiles(unit, projectData.includedFiles);
+
+                    //there's a configuration setting that determines if we
+                    //warn the user that a file is outside of the project's
+                    //source path
+                    if (showFileOutsideSourcePath) {
+                        notOnSourcePathSet.add(unitUri);
+                        if (actionScriptProjectManager.getAllProjectData().size() == 0) {
+                            SyntaxFallbackProblem problem = new SyntaxFallbackProblem(unitPath.toString(),
+                                    "Some code intelligence features are disabled for this file. Open a workspace folder to enable all ActionScript & MXML features.");
+                            problemQuery.add(problem);
+                        } else {
+                            SyntaxFallbackProblem problem = new SyntaxFallbackProblem(unitPath.toString(), unitPath
+                                    .getFileName()
+                                    + " is not located in the workspace's source path. Some code intelligence features are disabled for this file.");
+                            problemQuery.add(problem);
+                        }
                     }
+                    continue;
                 }
-                continue;
-            }
 
-            //reuse the existing list so that we don't allocate a list
-            //for every compilation unit
-            problems.clear();
+                //reuse the existing list so that we don't allocate a list
+                //for every compilation unit
+                problems.clear();
+
+                //we should have already built, so this will be fast
+                //if we hadn't built, we would not have all of the roots
+                checkCompilationUnitForAllProblems(unit, project, problems);
+                problemQuery.addAll(problems);
 
-            //we should have already built, so this will be fast
-            //if we hadn't built, we would not have all of the roots
-            checkCompilationUnitForAllProblems(unit, project, problems);
-            problemQuery.addAll(problems);
-            //clear for the next compilation unit
-            problems.clear();
+                //just to be safe, find all of the included files
+                //after we've checked for problems
+                projectData.includedFilesCache.findIncludedFiles(unit, projectData.includedFiles);
 
-            //just to be safe, find all of the included files
-            //after we've checked for problems
-            CompilationUnitUtils.findIncludedFiles(unit, projectData.includedFiles);
+                streamedURIs.addAll(publishDiagnosticsForCompilationUnit(unit, problems, projectData));
+                //clear for the next compilation unit
+                problems.clear();
+            }
+            projectData.includedFilesCache.retainAll(reachableUnits);
+        } finally {
+            //the client must be told that the check has ended, even if it
+            //was interrupted or it failed
+            if (reportProgress) {
+                languageClient.checkProblemsProgress(
+                        new CheckProblemsProgress(projectURI, reachableUnits.size(), reachableUnits.size()));
+            }
         }
     }
 
@@ -2086,8 +2623,28 @@ public class ActionScriptServices implements TextDocumentService, WorkspaceServi
         }
     }
 
+    private void updateProjectMemoryBudget(JsonObject settings) {
+        if (!settings.has("as3mxml")) {
+            return;
+        }
+        JsonObject as3mxml = settings.get("as3mxml").getAsJsonObject();
+        if (!as3mxml.has("languageServer")) {
+            return;
+        }
+        JsonObject languageServer = as3mxml.get("languageServer").getAsJsonObject();
+        if (!languageServer.has("heapBudget")) {
+            return;
+        }
+        JsonElement heapBudgetElement = languageServer.get("heapBudget");
+        Long newHeapBudget = null;
+        if (!heapBudgetElement.isJsonNull()) {
+            newHeapBudget = heapBudgetElement.getAsLong();
+        }
+        projectMemoryBudget.setBudgetMegabytes(newHeapBudget);
+    }
+
     private CompletableFuture<Object> executeQuickCompileCommand(ExecuteCommandParams params) {
-        return CompletableFutures.computeAsync(compilerWorkspace.getExecutorService(), cancelToken -> {
+        return CompletableFutures.computeAsync(requestExecutor, cancelToken -> {
             List<Object> args = params.getArguments();
             String uri = ((JsonPrimitive) args.get(0)).getAsString();
             boolean debug = ((JsonPrimitive) args.get(1)).getAsBoolean();
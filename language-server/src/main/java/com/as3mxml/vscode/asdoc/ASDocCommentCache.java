@@ -0,0 +1,91 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.asdoc;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.royale.compiler.asdoc.IASDocTag;
+
+/**
+ * Remembers the compiled description and tags of ASDoc comments, so that the
+ * same comment, which may be shown by hover, completion, and signature help,
+ * is compiled only once. Comments are keyed by their raw text, with separate
+ * entries for markdown and plain text. Only the most recently used comments
+ * are kept.
+ */
+public class ASDocCommentCache {
+	private static final int MAX_COMMENTS = 1024;
+
+	private static final ASDocCommentCache instance = new ASDocCommentCache();
+
+	public static ASDocCommentCache getInstance() {
+		return instance;
+	}
+
+	public static class CompiledComment {
+		public CompiledComment(String description, Map<String, List<IASDocTag>> tagMap) {
+			this.description = description;
+			this.tagMap = tagMap;
+		}
+
+		public String description;
+		public Map<String, List<IASDocTag>> tagMap;
+	}
+
+	private ASDocCommentCache() {
+	}
+
+	private Map<List<Object>, CompiledComment> comments = new LinkedHashMap<List<Object>, CompiledComment>(16,
+			0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<List<Object>, CompiledComment> eldest) {
+			return size() > MAX_COMMENTS;
+		}
+	};
+	private long hitCount = 0;
+	private long missCount = 0;
+
+	public synchronized CompiledComment get(String token, boolean useMarkdown) {
+		CompiledComment result = comments.get(Arrays.asList(token, useMarkdown));
+		if (result == null) {
+			missCount++;
+		} else {
+			hitCount++;
+		}
+		return result;
+	}
+
+	public synchronized void put(String token, boolean useMarkdown, CompiledComment compiledComment) {
+		comments.put(Arrays.asList(token, useMarkdown), compiledComment);
+	}
+
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	public synchronized int size() {
+		return comments.size();
+	}
+}
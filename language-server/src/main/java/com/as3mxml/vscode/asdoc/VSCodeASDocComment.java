@@ -24,6 +24,9 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.as3mxml.vscode.asdoc.ASDocCommentCache.CompiledComment;
 
 import org.apache.royale.compiler.asdoc.IASDocComment;
 import org.apache.royale.compiler.asdoc.IASDocTag;
@@ -31,6 +34,19 @@ import org.apache.royale.compiler.asdoc.IASDocTag;
 import antlr.Token;
 
 public class VSCodeASDocComment implements IASDocComment {
+	//the same patterns are used for every line, so they're compiled only once
+	private static final Pattern PATTERN_ATTRIBUTES = Pattern
+			.compile("<(\\w+)(?:\\s+\\w+(?::\\w+)?=(\"|\')[^\"\']*\\2)*\\s*(\\/{0,1})>");
+	private static final Pattern PATTERN_PREFORMATTED_START = Pattern.compile("<(pre|listing|codeblock)>");
+	private static final Pattern PATTERN_PREFORMATTED_END = Pattern.compile("</(pre|listing|codeblock)>");
+	private static final Pattern PATTERN_EMPHASIS = Pattern.compile("</?(em|i)>");
+	private static final Pattern PATTERN_STRONG = Pattern.compile("</?(strong|b)>");
+	private static final Pattern PATTERN_CODE = Pattern.compile("</?(code|codeph)>");
+	private static final Pattern PATTERN_HORIZONTAL_RULE = Pattern.compile("<hr ?\\/>");
+	private static final Pattern PATTERN_BLOCK = Pattern.compile("<(p|ul|ol|dl|li|dt|table|tr|div|blockquote)>");
+	private static final Pattern PATTERN_LINE_BREAK = Pattern.compile("<br ?\\/>\\s*");
+	private static final Pattern PATTERN_ANY_TAG = Pattern.compile("<\\/{0,1}\\w+\\/{0,1}>");
+
 	public VSCodeASDocComment(Token t) {
 		token = t.getText();
 	}
@@ -57,7 +73,16 @@ public class VSCodeASDocComment implements IASDocComment {
 
 	public void compile(boolean useMarkdown) {
 		usingMarkdown = useMarkdown;
+		ASDocCommentCache cache = ASDocCommentCache.getInstance();
+		CompiledComment compiledComment = cache.get(token, useMarkdown);
+		if (compiledComment != null) {
+			description = compiledComment.description;
+			tagMap = copyTagMap(compiledComment.tagMap);
+			return;
+		}
 		insidePreformatted = false;
+		//start over, in case this comment was already compiled
+		tagMap = new HashMap<String, List<IASDocTag>>();
 		String[] lines = token.split("\n");
 		StringBuilder sb = new StringBuilder();
 		int n = lines.length;
@@ -98,6 +123,17 @@ public class VSCodeASDocComment implements IASDocComment {
 			}
 		}
 		description = sb.toString().trim();
+		cache.put(token, useMarkdown, new CompiledComment(description, copyTagMap(tagMap)));
+	}
+
+	private Map<String, List<IASDocTag>> copyTagMap(Map<String, List<IASDocTag>> source) {
+		//the tags are immutable, but the lists and the map may be modified
+		Map<String, List<IASDocTag>> result = new HashMap<String, List<IASDocTag>>();
+		for (Map.Entry<String, List<IASDocTag>> entry : source.entrySet()) {
+			List<IASDocTag> tags = entry.getValue();
+			result.put(entry.getKey(), tags == null ? null : new ArrayList<IASDocTag>(tags));
+		}
+		return result;
 	}
 
 	@Override
@@ -158,46 +194,46 @@ public class VSCodeASDocComment implements IASDocComment {
 			line = line.trim();
 		}
 		//remove all attributes (including namespaced)
-		line = line.replaceAll("<(\\w+)(?:\\s+\\w+(?::\\w+)?=(\"|\')[^\"\']*\\2)*\\s*(\\/{0,1})>", "<$1$3>");
+		line = PATTERN_ATTRIBUTES.matcher(line).replaceAll("<$1$3>");
 		int beforeLength = line.length();
 		if (useMarkdown) {
-			line = line.replaceAll("<(pre|listing|codeblock)>", "\n\n```\n");
+			line = PATTERN_PREFORMATTED_START.matcher(line).replaceAll("\n\n```\n");
 		} else {
-			line = line.replaceAll("<(pre|listing|codeblock)>", "\n\n");
+			line = PATTERN_PREFORMATTED_START.matcher(line).replaceAll("\n\n");
 		}
 		if (line.length() < beforeLength) {
 			insidePreformatted = true;
 		}
 		beforeLength = line.length();
 		if (useMarkdown) {
-			line = line.replaceAll("</(pre|listing|codeblock)>", "\n```\n");
+			line = PATTERN_PREFORMATTED_END.matcher(line).replaceAll("\n```\n");
 		} else {
-			line = line.replaceAll("</(pre|listing|codeblock)>", "");
+			line = PATTERN_PREFORMATTED_END.matcher(line).replaceAll("");
 		}
 		if (line.length() < beforeLength) {
 			insidePreformatted = false;
 		}
 		if (useMarkdown) {
-			line = line.replaceAll("</?(em|i)>", "_");
-			line = line.replaceAll("</?(strong|b)>", "**");
-			line = line.replaceAll("</?(code|codeph)>", "`");
-			line = line.replaceAll("<hr ?\\/>", "\n\n---\n\n");
+			line = PATTERN_EMPHASIS.matcher(line).replaceAll("_");
+			line = PATTERN_STRONG.matcher(line).replaceAll("**");
+			line = PATTERN_CODE.matcher(line).replaceAll("`");
+			line = PATTERN_HORIZONTAL_RULE.matcher(line).replaceAll("\n\n---\n\n");
 		}
-		line = line.replaceAll("<(p|ul|ol|dl|li|dt|table|tr|div|blockquote)>", "\n\n");
+		line = PATTERN_BLOCK.matcher(line).replaceAll("\n\n");
 
 		//note: we allow <br/>, but not <br> because asdoc expects XHTML
 		if (useMarkdown) {
 			//to add a line break to markdown, there needs to be at least two
 			//spaces at the end of the line
-			line = line.replaceAll("<br ?\\/>\\s*", "  \n");
+			line = PATTERN_LINE_BREAK.matcher(line).replaceAll("  \n");
 		} else {
-			line = line.replaceAll("<br ?\\/>\\s*", "\n");
+			line = PATTERN_LINE_BREAK.matcher(line).replaceAll("\n");
 		}
-		line = line.replaceAll("<\\/{0,1}\\w+\\/{0,1}>", "");
+		line = PATTERN_ANY_TAG.matcher(line).replaceAll("");
 		return line;
 	}
 
-	class ASDocTag implements IASDocTag {
+	static class ASDocTag implements IASDocTag {
 		public ASDocTag(String name, String description) {
 			this.name = name;
 			this.description = description;
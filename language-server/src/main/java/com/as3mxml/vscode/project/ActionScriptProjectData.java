@@ -21,10 +21,18 @@ import java.util.HashMap;
 import java.util.Map;
 
 import com.as3mxml.vscode.utils.CompilationUnitUtils.IncludeFileData;
+import com.as3mxml.vscode.utils.IncludedFilesCache;
 import com.as3mxml.vscode.utils.LanguageServerCompilerUtils;
+import com.as3mxml.vscode.utils.MXMLNamespaceCache;
+import com.as3mxml.vscode.utils.MemberCompletionCache;
 import com.as3mxml.vscode.utils.ProblemTracker;
+import com.as3mxml.vscode.utils.ReachableUnitsCache;
+import com.as3mxml.vscode.utils.SWCUsageTracker;
+import com.as3mxml.vscode.utils.TypeHierarchyIndex;
+import com.as3mxml.vscode.utils.TypeNameIndex;
 
 import org.apache.royale.compiler.internal.projects.RoyaleProjectConfigurator;
+import org.eclipse.lsp4j.SymbolInformation;
 import org.eclipse.lsp4j.WorkspaceFolder;
 
 public class ActionScriptProjectData {
@@ -48,17 +56,33 @@ public class ActionScriptProjectData {
 	public WorkspaceFolder folder;
 	public int projectDepth;
 	public IProjectConfigStrategy config;
-	public ProjectOptions options;
-	public ILspProject project;
+	//the project may be created, replaced, or unloaded by one thread while
+	//requests read it on other threads
+	public volatile ProjectOptions options;
+	public volatile ILspProject project;
 	//needed for ProblemQuery filtering
-	public RoyaleProjectConfigurator configurator;
+	public volatile RoyaleProjectConfigurator configurator;
 	public Map<WatchKey, Path> sourceOrLibraryPathWatchKeys = new HashMap<>();
 	public ProblemTracker codeProblemTracker = new ProblemTracker();
 	public ProblemTracker configProblemTracker = new ProblemTracker();
 	public Map<String, IncludeFileData> includedFiles = new HashMap<>();
+	public IncludedFilesCache includedFilesCache = new IncludedFilesCache();
+	public TypeHierarchyIndex typeHierarchyIndex = new TypeHierarchyIndex();
+	public TypeNameIndex typeNameIndex = new TypeNameIndex();
+	public MemberCompletionCache memberCompletionCache = new MemberCompletionCache();
+	public MXMLNamespaceCache mxmlNamespaceCache = new MXMLNamespaceCache();
+	public ReachableUnitsCache reachableUnitsCache = new ReachableUnitsCache();
+	//a library was modified, so the next refresh must create a new project
+	public volatile boolean librariesChanged = false;
+	//when a request for one of the project's files was last received
+	public volatile long lastAccessTime = 0;
+	//the top-level symbols in the project's source files, by qualified name,
+	//while the project is unloaded to save memory
+	public volatile Map<String, SymbolInformation> unloadedSymbols;
 
 	public void cleanup() {
 		if (project != null) {
+			SWCUsageTracker.getInstance(project.getWorkspace()).releaseAll(this);
 			project.delete();
 			project = null;
 		}
@@ -67,6 +91,12 @@ public class ActionScriptProjectData {
 			watchKey.cancel();
 		}
 		sourceOrLibraryPathWatchKeys.clear();
+		includedFilesCache.clear();
+		typeHierarchyIndex.clear();
+		typeNameIndex.clear();
+		memberCompletionCache.clear();
+		mxmlNamespaceCache.clear();
+		reachableUnitsCache.clear();
 
 		configurator = null;
 	}
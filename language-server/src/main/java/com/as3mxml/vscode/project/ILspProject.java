@@ -28,6 +28,12 @@ import org.apache.royale.compiler.units.ICompilationUnit;
 public interface ILspProject extends IRoyaleProject {
 	public Set<String> getQNamesOfDependencies(ICompilationUnit from);
 
+	/**
+	 * Returns the compilation units that directly depend on the specified
+	 * compilation unit.
+	 */
+	public Set<ICompilationUnit> getDirectDependents(ICompilationUnit to);
+
 	public IDefinition resolveSpecifier(IClassDefinition classDefinition, String specifierName);
 
 	public Collection<ICompilerProblem> getFatalProblems();
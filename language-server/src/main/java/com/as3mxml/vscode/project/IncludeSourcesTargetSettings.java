@@ -0,0 +1,99 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.project;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.royale.compiler.targets.ITargetSettings;
+import org.apache.royale.compiler.targets.TargetSettingsProxy;
+
+/**
+ * Replaces the include-sources of existing target settings, so that files may
+ * be added to or removed from a project without configuring it again.
+ */
+public class IncludeSourcesTargetSettings extends TargetSettingsProxy {
+	public static ITargetSettings replaceIncludeSources(ITargetSettings targetSettings,
+			Collection<File> includeSources) {
+		if (targetSettings instanceof IncludeSourcesTargetSettings) {
+			targetSettings = ((IncludeSourcesTargetSettings) targetSettings).baseTargetSettings;
+		}
+		return new IncludeSourcesTargetSettings(targetSettings, includeSources);
+	}
+
+	private IncludeSourcesTargetSettings(ITargetSettings baseTargetSettings, Collection<File> includeSources) {
+		super(baseTargetSettings);
+		this.baseTargetSettings = baseTargetSettings;
+		this.includeSources = new ArrayList<>(includeSources);
+	}
+
+	private ITargetSettings baseTargetSettings;
+	private Collection<File> includeSources;
+
+	@Override
+	public Collection<File> getIncludeSources() {
+		return includeSources;
+	}
+
+	//the following methods are missing from TargetSettingsProxy
+
+	@Override
+	public boolean allowSubclassOverrides() {
+		return baseTargetSettings.allowSubclassOverrides();
+	}
+
+	@Override
+	public boolean getAllowSubclassOverrides() {
+		return baseTargetSettings.getAllowSubclassOverrides();
+	}
+
+	@Override
+	public boolean getInfoFlex() {
+		return baseTargetSettings.getInfoFlex();
+	}
+
+	@Override
+	public boolean getMxmlChildrenAsData() {
+		return baseTargetSettings.getMxmlChildrenAsData();
+	}
+
+	@Override
+	public boolean isTelemetryEnabled() {
+		return baseTargetSettings.isTelemetryEnabled();
+	}
+
+	@Override
+	public String getSWFMetadataDate() {
+		return baseTargetSettings.getSWFMetadataDate();
+	}
+
+	@Override
+	public String getSWFMetadataDateFormat() {
+		return baseTargetSettings.getSWFMetadataDateFormat();
+	}
+
+	@Override
+	public String[] getMxmlImplicitImports() {
+		return baseTargetSettings.getMxmlImplicitImports();
+	}
+
+	@Override
+	public List<String> getExcludeDefaultsCSSFiles() {
+		return baseTargetSettings.getExcludeDefaultsCSSFiles();
+	}
+}
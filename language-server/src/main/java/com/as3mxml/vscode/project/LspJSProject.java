@@ -39,4 +39,8 @@ public class LspJSProject extends RoyaleJSProject implements ILspProject {
 		}
 		return result;
 	}
+
+	public Set<ICompilationUnit> getDirectDependents(ICompilationUnit to) {
+		return getDirectReverseDependencies(to, DependencyTypeSet.allOf());
+	}
 }
\ No newline at end of file
@@ -38,4 +38,8 @@ public class LspProject extends RoyaleProject implements ILspProject {
 		}
 		return result;
 	}
+
+	public Set<ICompilationUnit> getDirectDependents(ICompilationUnit to) {
+		return getDirectReverseDependencies(to, DependencyTypeSet.allOf());
+	}
 }
\ No newline at end of file
@@ -0,0 +1,163 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.project;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import com.as3mxml.vscode.utils.SDKConfigurationCache;
+import com.as3mxml.vscode.utils.SDKConfigurationCache.CachedValue;
+
+import org.apache.royale.compiler.config.Configuration;
+import org.apache.royale.compiler.config.ConfigurationBuffer;
+import org.apache.royale.compiler.config.ConfigurationValue;
+import org.apache.royale.compiler.exceptions.ConfigurationException;
+import org.apache.royale.compiler.internal.projects.RoyaleProjectConfigurator;
+
+/**
+ * Loads the SDK's configuration files from SDKConfigurationCache, when
+ * possible, instead of parsing them for every project. The project's own
+ * options are applied on top of the cached values, exactly like when the
+ * files are parsed.
+ */
+public class LspProjectConfigurator extends RoyaleProjectConfigurator {
+	private static final String LOAD_CONFIG = "load-config";
+
+	public LspProjectConfigurator(Class<? extends Configuration> configurationClass) {
+		super(configurationClass);
+		this.configurationClass = configurationClass;
+	}
+
+	private Class<? extends Configuration> configurationClass;
+	private Map<String, String> tokens = new TreeMap<>();
+
+	@Override
+	public void setToken(String name, String value) {
+		super.setToken(name, value);
+		tokens.put(name, value);
+	}
+
+	@Override
+	protected boolean loadConfig() {
+		ConfigurationBuffer buffer = getConfigurationBuffer();
+		String cacheKey = getCacheKey(buffer);
+		if (cacheKey == null) {
+			return super.loadConfig();
+		}
+		SDKConfigurationCache cache = SDKConfigurationCache.getInstance();
+		Map<String, List<CachedValue>> cachedValues = cache.get(cacheKey);
+		if (cachedValues != null) {
+			try {
+				buffer.merge(createBuffer(buffer, cachedValues));
+				return true;
+			} catch (ConfigurationException e) {
+				//load the files instead
+			}
+		}
+
+		Map<String, List<ConfigurationValue>> oldValues = getValues(buffer);
+		int oldProblemCount = configurationProblems != null ? configurationProblems.size() : 0;
+		int oldLoadedCount = getLoadedConfigurationFiles().size();
+		boolean result = super.loadConfig();
+		int newProblemCount = configurationProblems != null ? configurationProblems.size() : 0;
+		if (!result || newProblemCount != oldProblemCount) {
+			return result;
+		}
+		Map<String, List<CachedValue>> changedValues = findChangedValues(oldValues, buffer);
+		if (changedValues != null) {
+			List<String> loadedFiles = getLoadedConfigurationFiles();
+			cache.put(cacheKey, loadedFiles.subList(oldLoadedCount, loadedFiles.size()), changedValues);
+		}
+		return result;
+	}
+
+	private String getCacheKey(ConfigurationBuffer buffer) {
+		StringBuilder builder = new StringBuilder();
+		builder.append(configurationClass.getName());
+		builder.append('\n');
+		builder.append(tokens);
+		try {
+			List<ConfigurationValue> loadConfigValues = buffer.peekConfigurationVar(LOAD_CONFIG);
+			if (loadConfigValues == null) {
+				return null;
+			}
+			for (ConfigurationValue loadConfigValue : loadConfigValues) {
+				for (String path : loadConfigValue.getArgs()) {
+					builder.append('\n');
+					if (!new File(path).isAbsolute()) {
+						//relative paths may resolve differently for each project
+						builder.append(System.getProperty("user.dir"));
+						builder.append(File.separator);
+					}
+					builder.append(path);
+				}
+			}
+		} catch (ConfigurationException e) {
+			return null;
+		}
+		return builder.toString();
+	}
+
+	private Map<String, List<ConfigurationValue>> getValues(ConfigurationBuffer buffer) {
+		Map<String, List<ConfigurationValue>> result = new HashMap<>();
+		for (String var : buffer.getVars()) {
+			result.put(var, new ArrayList<>(buffer.getVar(var)));
+		}
+		return result;
+	}
+
+	private Map<String, List<CachedValue>> findChangedValues(Map<String, List<ConfigurationValue>> oldValues,
+			ConfigurationBuffer buffer) {
+		Map<String, List<CachedValue>> result = new LinkedHashMap<>();
+		for (String var : oldValues.keySet()) {
+			if (!buffer.getVars().contains(var)) {
+				//values that were cleared can't be merged later
+				return null;
+			}
+		}
+		for (String var : buffer.getVars()) {
+			List<ConfigurationValue> newValues = buffer.getVar(var);
+			if (Objects.equals(oldValues.get(var), newValues)) {
+				continue;
+			}
+			List<CachedValue> cachedValues = new ArrayList<>();
+			for (ConfigurationValue value : newValues) {
+				cachedValues.add(new CachedValue(value.getArgs(), value.getSource(), value.getLine(),
+						value.getContext()));
+			}
+			result.put(var, cachedValues);
+		}
+		return result;
+	}
+
+	private ConfigurationBuffer createBuffer(ConfigurationBuffer buffer, Map<String, List<CachedValue>> valuesByVar)
+			throws ConfigurationException {
+		ConfigurationBuffer result = new ConfigurationBuffer(configurationClass, buffer.getAliases());
+		for (Map.Entry<String, List<CachedValue>> entry : valuesByVar.entrySet()) {
+			for (CachedValue value : entry.getValue()) {
+				result.setVar(entry.getKey(), new ArrayList<>(value.args), value.source, value.line, value.context,
+						true);
+			}
+		}
+		return result;
+	}
+}
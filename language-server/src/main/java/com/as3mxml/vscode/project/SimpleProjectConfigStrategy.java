@@ -67,19 +67,45 @@ public class SimpleProjectConfigStrategy implements IProjectConfigStrategy {
     }
 
     private List<Path> openPaths = new ArrayList<>();
+    private boolean includeSourcesChanged = false;
 
     public void didOpen(Path path) {
-        changed = true;
         openPaths.add(path);
+        if (openPaths.size() == 1) {
+            //there was no project until now
+            changed = true;
+        } else {
+            includeSourcesChanged = true;
+        }
     }
 
     public void didClose(Path path) {
-        changed = true;
         openPaths.remove(path);
+        if (openPaths.size() == 0) {
+            //the project is no longer needed
+            changed = true;
+        } else {
+            includeSourcesChanged = true;
+        }
+    }
+
+    /**
+     * Indicates if files were opened or closed since the options were created,
+     * without requiring the project to be configured again. The existing
+     * project may be updated with the paths from getIncludeSources().
+     */
+    public boolean getIncludeSourcesChanged() {
+        return includeSourcesChanged;
+    }
+
+    public List<Path> getIncludeSources() {
+        includeSourcesChanged = false;
+        return new ArrayList<>(openPaths);
     }
 
     public ProjectOptions getOptions() {
         changed = false;
+        includeSourcesChanged = false;
 
         if (openPaths.size() == 0) {
             return null;
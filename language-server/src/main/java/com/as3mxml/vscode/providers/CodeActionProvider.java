@@ -601,7 +601,7 @@ public class CodeActionProvider {
         IIdentifierNode identifierNode = (IIdentifierNode) offsetNode;
         String typeString = identifierNode.getName();
 
-        List<IDefinition> types = ASTUtils.findTypesThatMatchName(typeString, project.getCompilationUnits());
+        List<IDefinition> types = projectData.typeNameIndex.findTypesThatMatchName(project, typeString);
         for (IDefinition definitionToImport : types) {
             WorkspaceEdit edit = CodeActionsUtils.createWorkspaceEditForAddImport(definitionToImport, fileText, uri,
                     importRange);
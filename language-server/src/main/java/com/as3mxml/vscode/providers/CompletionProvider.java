@@ -42,6 +42,7 @@ import com.as3mxml.vscode.utils.LanguageServerCompilerUtils;
 import com.as3mxml.vscode.utils.MXMLDataUtils;
 import com.as3mxml.vscode.utils.MXMLNamespace;
 import com.as3mxml.vscode.utils.MXMLNamespaceUtils;
+import com.as3mxml.vscode.utils.MemberCompletionCache.MetadataMember;
 import com.as3mxml.vscode.utils.ScopeUtils;
 import com.as3mxml.vscode.utils.SourcePathUtils;
 import com.as3mxml.vscode.utils.ActionScriptProjectManager;
@@ -127,6 +128,8 @@ public class CompletionProvider {
     private boolean completionSupportsSnippets;
     private boolean frameworkSDKIsRoyale;
     private List<String> completionTypes = new ArrayList<>();
+    //the project data of the file being completed, for its caches
+    private ActionScriptProjectData currentProjectData;
 
     public CompletionProvider(ActionScriptProjectManager actionScriptProjectManager, FileTracker fileTracker,
             boolean completionSupportsSnippets, boolean frameworkSDKIsRoyale) {
@@ -163,6 +166,7 @@ public class CompletionProvider {
                 return Either.forRight(result);
             }
             ILspProject project = projectData.project;
+            currentProjectData = projectData;
 
             IncludeFileData includeFileData = projectData.includedFiles.get(path.toString());
             int currentOffset = LanguageServerCompilerUtils.getOffsetFromPosition(fileTracker.getReader(path), position,
@@ -1400,10 +1404,30 @@ public class CompletionProvider {
             boolean includeSuperStatics, boolean forMXML, boolean isAttribute, String prefix,
             boolean includeOpenTagBracket, boolean includeOpenTagPrefix, char nextChar, AddImportData addImportData,
             Position xmlnsPosition, IMXMLTagData offsetTag, ILspProject project, CompletionList result) {
+        Set<INamespaceDefinition> namespaceSet = ScopeUtils.getNamespaceSetForScopes(typeScope, otherScope, project);
+        ITypeDefinition typeDefinition = (ITypeDefinition) typeScope.getDefinition();
+        List<IDefinition> memberDefinitions = currentProjectData.memberCompletionCache.getMembers(project,
+                typeDefinition, namespaceSet, isStatic, includeSuperStatics, forMXML, () -> {
+                    return findMembersForAutoComplete(typeScope, namespaceSet, isStatic, includeSuperStatics, forMXML,
+                            project);
+                });
+        for (IDefinition localDefinition : memberDefinitions) {
+            if (forMXML) {
+                addDefinitionAutoCompleteMXML(localDefinition, xmlnsPosition, isAttribute, prefix, null,
+                        includeOpenTagBracket, includeOpenTagPrefix, nextChar, offsetTag, project, result);
+            } else //actionscript
+            {
+                addDefinitionAutoCompleteActionScript(localDefinition, null, nextChar, addImportData, project, result);
+            }
+        }
+    }
+
+    private List<IDefinition> findMembersForAutoComplete(TypeScope typeScope, Set<INamespaceDefinition> namespaceSet,
+            boolean isStatic, boolean includeSuperStatics, boolean forMXML, ILspProject project) {
         IMetaTag[] excludeMetaTags = typeScope.getDefinition()
                 .getMetaTagsByName(IMetaAttributeConstants.ATTRIBUTE_EXCLUDE);
         ArrayList<IDefinition> memberAccessDefinitions = new ArrayList<>();
-        Set<INamespaceDefinition> namespaceSet = ScopeUtils.getNamespaceSetForScopes(typeScope, otherScope, project);
+        List<IDefinition> result = new ArrayList<>();
 
         typeScope.getAllPropertiesForMemberAccess((CompilerProject) project, memberAccessDefinitions, namespaceSet);
         for (IDefinition localDefinition : memberAccessDefinitions) {
@@ -1463,143 +1487,157 @@ public class CompletionProvider {
                 //skip it!
                 continue;
             }
-            if (forMXML) {
-                addDefinitionAutoCompleteMXML(localDefinition, xmlnsPosition, isAttribute, prefix, null,
-                        includeOpenTagBracket, includeOpenTagPrefix, nextChar, offsetTag, project, result);
-            } else //actionscript
-            {
-                addDefinitionAutoCompleteActionScript(localDefinition, null, nextChar, addImportData, project, result);
-            }
+            result.add(localDefinition);
         }
+        return result;
     }
 
     private void addEventMetadataToAutoCompleteMXML(TypeScope typeScope, boolean isAttribute, String prefix,
             boolean includeOpenTagBracket, boolean includeOpenTagPrefix, char nextChar, ILspProject project,
             CompletionList result) {
+        ITypeDefinition typeDefinition = (ITypeDefinition) typeScope.getDefinition();
+        List<MetadataMember> eventMembers = currentProjectData.memberCompletionCache.getMetadataMembers(
+                project, typeDefinition, IMetaAttributeConstants.ATTRIBUTE_EVENT, () -> {
+                    return findMetadataMembersForAutoComplete(typeDefinition, IMetaAttributeConstants.ATTRIBUTE_EVENT,
+                            IMetaAttributeConstants.NAME_EVENT_NAME, project);
+                });
         ArrayList<String> eventNames = new ArrayList<>();
-        IDefinition definition = typeScope.getDefinition();
-        while (definition instanceof IClassDefinition) {
-            IClassDefinition classDefinition = (IClassDefinition) definition;
-            IMetaTag[] eventMetaTags = definition.getMetaTagsByName(IMetaAttributeConstants.ATTRIBUTE_EVENT);
-            for (IMetaTag eventMetaTag : eventMetaTags) {
-                String eventName = eventMetaTag.getAttributeValue(IMetaAttributeConstants.NAME_EVENT_NAME);
-                if (eventName == null || eventName.length() == 0) {
-                    //vscode expects all items to have a name
-                    continue;
-                }
-                if (eventNames.contains(eventName)) {
-                    //avoid duplicates!
-                    continue;
+        for (MetadataMember eventMember : eventMembers) {
+            String eventName = eventMember.name;
+            if (eventNames.contains(eventName)) {
+                //avoid duplicates!
+                continue;
+            }
+            eventNames.add(eventName);
+            if (eventMember.definition == null) {
+                continue;
+            }
+            CompletionItem item = CompletionItemUtils.createDefinitionItem(eventMember.definition, project);
+            if (isAttribute && completionSupportsSnippets && nextChar != '=') {
+                item.setInsertTextFormat(InsertTextFormat.Snippet);
+                item.setInsertText(eventName + "=\"$0\"");
+            } else if (!isAttribute) {
+                StringBuilder builder = new StringBuilder();
+                if (includeOpenTagBracket) {
+                    builder.append("<");
                 }
-                eventNames.add(eventName);
-                IDefinition eventDefinition = project.resolveSpecifier(classDefinition, eventName);
-                if (eventDefinition == null) {
-                    continue;
+                if (includeOpenTagPrefix && prefix != null && prefix.length() > 0) {
+                    builder.append(prefix);
+                    builder.append(IMXMLCoreConstants.colon);
                 }
-                CompletionItem item = CompletionItemUtils.createDefinitionItem(eventDefinition, project);
-                if (isAttribute && completionSupportsSnippets && nextChar != '=') {
+                builder.append(eventName);
+                if (completionSupportsSnippets) {
                     item.setInsertTextFormat(InsertTextFormat.Snippet);
-                    item.setInsertText(eventName + "=\"$0\"");
-                } else if (!isAttribute) {
-                    StringBuilder builder = new StringBuilder();
-                    if (includeOpenTagBracket) {
-                        builder.append("<");
-                    }
-                    if (includeOpenTagPrefix && prefix != null && prefix.length() > 0) {
+                    builder.append(">");
+                    builder.append("$0");
+                    builder.append("</");
+                    if (prefix != null && prefix.length() > 0) {
                         builder.append(prefix);
                         builder.append(IMXMLCoreConstants.colon);
                     }
                     builder.append(eventName);
-                    if (completionSupportsSnippets) {
-                        item.setInsertTextFormat(InsertTextFormat.Snippet);
-                        builder.append(">");
-                        builder.append("$0");
-                        builder.append("</");
-                        if (prefix != null && prefix.length() > 0) {
-                            builder.append(prefix);
-                            builder.append(IMXMLCoreConstants.colon);
-                        }
-                        builder.append(eventName);
-                        builder.append(">");
-                    }
-                    item.setInsertText(builder.toString());
+                    builder.append(">");
                 }
-                result.getItems().add(item);
+                item.setInsertText(builder.toString());
             }
-            definition = classDefinition.resolveBaseClass(project);
+            result.getItems().add(item);
         }
     }
 
     private void addStyleMetadataToAutoCompleteMXML(TypeScope typeScope, boolean isAttribute, String prefix,
             boolean includeOpenTagBracket, boolean includeOpenTagPrefix, char nextChar, ILspProject project,
             CompletionList result) {
+        ITypeDefinition typeDefinition = (ITypeDefinition) typeScope.getDefinition();
+        List<MetadataMember> styleMembers = currentProjectData.memberCompletionCache.getMetadataMembers(
+                project, typeDefinition, IMetaAttributeConstants.ATTRIBUTE_STYLE, () -> {
+                    return findMetadataMembersForAutoComplete(typeDefinition, IMetaAttributeConstants.ATTRIBUTE_STYLE,
+                            IMetaAttributeConstants.NAME_STYLE_NAME, project);
+                });
         ArrayList<String> styleNames = new ArrayList<>();
-        IDefinition definition = typeScope.getDefinition();
         List<CompletionItem> items = result.getItems();
-        while (definition instanceof IClassDefinition) {
-            IClassDefinition classDefinition = (IClassDefinition) definition;
-            IMetaTag[] styleMetaTags = definition.getMetaTagsByName(IMetaAttributeConstants.ATTRIBUTE_STYLE);
-            for (IMetaTag styleMetaTag : styleMetaTags) {
-                String styleName = styleMetaTag.getAttributeValue(IMetaAttributeConstants.NAME_STYLE_NAME);
-                if (styleName == null || styleName.length() == 0) {
-                    //vscode expects all items to have a name
-                    continue;
-                }
-                if (styleNames.contains(styleName)) {
-                    //avoid duplicates!
-                    continue;
-                }
-                styleNames.add(styleName);
-                IDefinition styleDefinition = project.resolveSpecifier(classDefinition, styleName);
-                if (styleDefinition == null) {
-                    continue;
+        IClassDefinition skippedOwner = null;
+        for (MetadataMember styleMember : styleMembers) {
+            if (styleMember.owner == skippedOwner) {
+                continue;
+            }
+            String styleName = styleMember.name;
+            if (styleNames.contains(styleName)) {
+                //avoid duplicates!
+                continue;
+            }
+            styleNames.add(styleName);
+            if (styleMember.definition == null) {
+                continue;
+            }
+            boolean foundExisting = false;
+            for (CompletionItem item : items) {
+                if (item.getLabel().equals(styleName)) {
+                    //we want to avoid adding a duplicate item with the same
+                    //name. in flex, it's possible for a component to have
+                    //a property and a style with the same name.
+                    //if there's a conflict, the compiler will know how to handle it.
+                    foundExisting = true;
+                    break;
                 }
-                boolean foundExisting = false;
-                for (CompletionItem item : items) {
-                    if (item.getLabel().equals(styleName)) {
-                        //we want to avoid adding a duplicate item with the same
-                        //name. in flex, it's possible for a component to have
-                        //a property and a style with the same name.
-                        //if there's a conflict, the compiler will know how to handle it.
-                        foundExisting = true;
-                        break;
-                    }
+            }
+            if (foundExisting) {
+                //skip the rest of the styles from the same class
+                skippedOwner = styleMember.owner;
+                continue;
+            }
+            CompletionItem item = CompletionItemUtils.createDefinitionItem(styleMember.definition, project);
+            if (isAttribute && completionSupportsSnippets && nextChar != '=') {
+                item.setInsertTextFormat(InsertTextFormat.Snippet);
+                item.setInsertText(styleName + "=\"$0\"");
+            } else if (!isAttribute) {
+                StringBuilder builder = new StringBuilder();
+                if (includeOpenTagBracket) {
+                    builder.append("<");
                 }
-                if (foundExisting) {
-                    break;
+                if (includeOpenTagPrefix && prefix != null && prefix.length() > 0) {
+                    builder.append(prefix);
+                    builder.append(IMXMLCoreConstants.colon);
                 }
-                CompletionItem item = CompletionItemUtils.createDefinitionItem(styleDefinition, project);
-                if (isAttribute && completionSupportsSnippets && nextChar != '=') {
+                builder.append(styleName);
+                if (completionSupportsSnippets) {
                     item.setInsertTextFormat(InsertTextFormat.Snippet);
-                    item.setInsertText(styleName + "=\"$0\"");
-                } else if (!isAttribute) {
-                    StringBuilder builder = new StringBuilder();
-                    if (includeOpenTagBracket) {
-                        builder.append("<");
-                    }
-                    if (includeOpenTagPrefix && prefix != null && prefix.length() > 0) {
+                    builder.append(">");
+                    builder.append("$0");
+                    builder.append("</");
+                    if (prefix != null && prefix.length() > 0) {
                         builder.append(prefix);
                         builder.append(IMXMLCoreConstants.colon);
                     }
                     builder.append(styleName);
-                    if (completionSupportsSnippets) {
-                        item.setInsertTextFormat(InsertTextFormat.Snippet);
-                        builder.append(">");
-                        builder.append("$0");
-                        builder.append("</");
-                        if (prefix != null && prefix.length() > 0) {
-                            builder.append(prefix);
-                            builder.append(IMXMLCoreConstants.colon);
-                        }
-                        builder.append(styleName);
-                        builder.append(">");
-                    }
-                    item.setInsertText(builder.toString());
+                    builder.append(">");
                 }
-                items.add(item);
+                item.setInsertText(builder.toString());
+            }
+            items.add(item);
+        }
+    }
+
+    private List<MetadataMember> findMetadataMembersForAutoComplete(ITypeDefinition typeDefinition,
+            String metaTagName, String attributeName, ILspProject project) {
+        List<MetadataMember> result = new ArrayList<>();
+        IDefinition definition = typeDefinition;
+        while (definition instanceof IClassDefinition) {
+            IClassDefinition classDefinition = (IClassDefinition) definition;
+            IMetaTag[] metaTags = definition.getMetaTagsByName(metaTagName);
+            for (IMetaTag metaTag : metaTags) {
+                String name = metaTag.getAttributeValue(attributeName);
+                if (name == null || name.length() == 0) {
+                    //vscode expects all items to have a name
+                    continue;
+                }
+                //duplicates are skipped later, but they're kept here because
+                //an unresolved duplicate still hides the others
+                IDefinition resolvedDefinition = project.resolveSpecifier(classDefinition, name);
+                result.add(new MetadataMember(name, resolvedDefinition, classDefinition));
             }
             definition = classDefinition.resolveBaseClass(project);
         }
+        return result;
     }
 
     private void addMXMLTypeDefinitionAutoComplete(ITypeDefinition definition, Position xmlnsPosition,
@@ -1609,7 +1647,7 @@ public class CompletionProvider {
         MXMLData mxmlData = (MXMLData) mxmlDataManager
                 .get(fileTracker.getFileSpecification(offsetUnit.getAbsoluteFilename()));
         MXMLNamespace discoveredNS = MXMLNamespaceUtils.getMXMLNamespaceForTypeDefinition(definition, mxmlData,
-                project);
+                project, currentProjectData.mxmlNamespaceCache);
         addDefinitionAutoCompleteMXML(definition, xmlnsPosition, false, discoveredNS.prefix, discoveredNS.uri,
                 includeOpenTagBracket, true, nextChar, offsetTag, project, result);
     }
@@ -1906,6 +1944,12 @@ public class CompletionProvider {
             }
         }
 
+        Set<String> typeFilterNames = null;
+        if (typeFilter != null) {
+            //the types that may be used are the filter and all of its subtypes
+            typeFilterNames = currentProjectData.typeHierarchyIndex.findAllSubtypeNames(project, typeFilter);
+            typeFilterNames.add(typeFilter);
+        }
         for (ICompilationUnit unit : project.getCompilationUnits()) {
             if (unit == null) {
                 continue;
@@ -1923,7 +1967,7 @@ public class CompletionProvider {
                     continue;
                 }
                 ITypeDefinition typeDefinition = (ITypeDefinition) definition;
-                if (typeFilter != null && !DefinitionUtils.extendsOrImplements(project, typeDefinition, typeFilter)) {
+                if (typeFilterNames != null && !typeFilterNames.contains(typeDefinition.getQualifiedName())) {
                     continue;
                 }
 
@@ -1961,7 +2005,7 @@ public class CompletionProvider {
                     } else {
                         //no prefix yet, so complete the definition with a prefix
                         MXMLNamespace ns = MXMLNamespaceUtils.getMXMLNamespaceForTypeDefinition(typeDefinition,
-                                mxmlData, project);
+                                mxmlData, project, currentProjectData.mxmlNamespaceCache);
                         addDefinitionAutoCompleteMXML(typeDefinition, xmlnsPosition, false, ns.prefix, ns.uri, false,
                                 true, nextChar, offsetTag, project, result);
                     }
@@ -1973,6 +2017,12 @@ public class CompletionProvider {
     private void autoCompleteDefinitionsForMXML(CompletionList result, ILspProject project, ICompilationUnit offsetUnit,
             IMXMLTagData offsetTag, boolean typesOnly, boolean includeOpenTagBracket, char nextChar, String typeFilter,
             AddImportData addImportData, Position xmlnsPosition) {
+        Set<String> typeFilterNames = null;
+        if (typeFilter != null) {
+            //the types that may be used are the filter and all of its subtypes
+            typeFilterNames = currentProjectData.typeHierarchyIndex.findAllSubtypeNames(project, typeFilter);
+            typeFilterNames.add(typeFilter);
+        }
         for (ICompilationUnit unit : project.getCompilationUnits()) {
             if (unit == null) {
                 continue;
@@ -1997,8 +2047,8 @@ public class CompletionProvider {
                     }
                     if (isType) {
                         ITypeDefinition typeDefinition = (ITypeDefinition) definition;
-                        if (typeFilter != null
-                                && !DefinitionUtils.extendsOrImplements(project, typeDefinition, typeFilter)) {
+                        if (typeFilterNames != null
+                                && !typeFilterNames.contains(typeDefinition.getQualifiedName())) {
                             continue;
                         }
 
@@ -23,31 +23,39 @@ import java.util.List;
 
 import com.as3mxml.vscode.project.ILspProject;
 import com.as3mxml.vscode.project.ActionScriptProjectData;
+import com.as3mxml.vscode.utils.ASTokenUtils;
 import com.as3mxml.vscode.utils.CompilerProjectUtils;
 import com.as3mxml.vscode.utils.LanguageServerCompilerUtils;
 import com.as3mxml.vscode.utils.ActionScriptProjectManager;
+import com.as3mxml.vscode.utils.SyntaxParseCache;
 
 import org.apache.royale.compiler.definitions.IDefinition;
 import org.apache.royale.compiler.definitions.IFunctionDefinition;
 import org.apache.royale.compiler.definitions.IPackageDefinition;
 import org.apache.royale.compiler.definitions.ITypeDefinition;
 import org.apache.royale.compiler.definitions.IVariableDefinition;
+import org.apache.royale.compiler.internal.parsing.as.ASToken;
 import org.apache.royale.compiler.scopes.IASScope;
 import org.apache.royale.compiler.units.ICompilationUnit;
 import org.eclipse.lsp4j.DocumentSymbol;
 import org.eclipse.lsp4j.DocumentSymbolParams;
+import org.eclipse.lsp4j.Location;
 import org.eclipse.lsp4j.SymbolInformation;
 import org.eclipse.lsp4j.TextDocumentIdentifier;
 import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 
 public class DocumentSymbolProvider {
+    private static final String FILE_EXTENSION_AS = ".as";
+
     private ActionScriptProjectManager actionScriptProjectManager;
+    private SyntaxParseCache syntaxParseCache;
     private boolean hierarchicalDocumentSymbolSupport;
 
     public DocumentSymbolProvider(ActionScriptProjectManager actionScriptProjectManager,
-            boolean hierarchicalDocumentSymbolSupport) {
+            SyntaxParseCache syntaxParseCache, boolean hierarchicalDocumentSymbolSupport) {
         this.actionScriptProjectManager = actionScriptProjectManager;
+        this.syntaxParseCache = syntaxParseCache;
         this.hierarchicalDocumentSymbolSupport = hierarchicalDocumentSymbolSupport;
     }
 
@@ -63,15 +71,16 @@ public class DocumentSymbolProvider {
         ActionScriptProjectData projectData = actionScriptProjectManager.getProjectDataForSourceFile(path);
         if (projectData == null || projectData.project == null) {
             cancelToken.checkCanceled();
-            return Collections.emptyList();
+            return tokensToSymbols(path);
         }
         ILspProject project = projectData.project;
 
         ICompilationUnit unit = CompilerProjectUtils.findCompilationUnit(path, project);
         if (unit == null) {
             cancelToken.checkCanceled();
-            //we couldn't find a compilation unit with the specified path
-            return Collections.emptyList();
+            //we couldn't find a compilation unit with the specified path, so
+            //the symbols are found in the file's tokens instead
+            return tokensToSymbols(path);
         }
 
         IASScope[] scopes;
@@ -171,4 +180,43 @@ public class DocumentSymbolProvider {
             }
         }
     }
-}
\ No newline at end of file
+
+    private List<Either<SymbolInformation, DocumentSymbol>> tokensToSymbols(Path path) {
+        if (!path.toString().endsWith(FILE_EXTENSION_AS)) {
+            return Collections.emptyList();
+        }
+        ASToken[] tokens = syntaxParseCache.getTokens(path);
+        if (tokens == null) {
+            return Collections.emptyList();
+        }
+        List<DocumentSymbol> symbols = ASTokenUtils.tokensToDocumentSymbols(tokens);
+        List<Either<SymbolInformation, DocumentSymbol>> result = new ArrayList<>();
+        if (hierarchicalDocumentSymbolSupport) {
+            for (DocumentSymbol symbol : symbols) {
+                result.add(Either.forRight(symbol));
+            }
+        } else //fallback to non-hierarchical
+        {
+            String uri = path.toUri().toString();
+            List<SymbolInformation> flatSymbols = new ArrayList<>();
+            documentSymbolsToSymbolInformation(symbols, null, uri, flatSymbols);
+            for (SymbolInformation symbol : flatSymbols) {
+                result.add(Either.forLeft(symbol));
+            }
+        }
+        return result;
+    }
+
+    private void documentSymbolsToSymbolInformation(List<DocumentSymbol> symbols, String containerName, String uri,
+            List<SymbolInformation> result) {
+        for (DocumentSymbol symbol : symbols) {
+            SymbolInformation symbolInfo = new SymbolInformation();
+            symbolInfo.setName(symbol.getName());
+            symbolInfo.setKind(symbol.getKind());
+            symbolInfo.setLocation(new Location(uri, symbol.getRange()));
+            symbolInfo.setContainerName(containerName);
+            result.add(symbolInfo);
+            documentSymbolsToSymbolInformation(symbol.getChildren(), symbol.getName(), uri, result);
+        }
+    }
+}
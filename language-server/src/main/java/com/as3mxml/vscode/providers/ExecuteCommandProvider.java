@@ -15,18 +15,25 @@ limitations under the License.
 */
 package com.as3mxml.vscode.providers;
 
-import java.io.File;
+import java.io.IOException;
 import java.io.StringReader;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.as3mxml.asconfigc.compiler.ProjectType;
 import com.as3mxml.vscode.commands.ICommandConstants;
@@ -64,6 +71,7 @@ import org.eclipse.lsp4j.jsonrpc.CompletableFutures;
 public class ExecuteCommandProvider {
     private static final String FILE_EXTENSION_MXML = ".mxml";
     private static final String FILE_EXTENSION_AS = ".as";
+    private static final int ORGANIZE_IMPORTS_BATCH_SIZE = 100;
 
     private ActionScriptProjectManager actionScriptProjectManager;
     private FileTracker fileTracker;
@@ -108,74 +116,80 @@ public class ExecuteCommandProvider {
         String directoryURI = uriObject.get("external").getAsString();
 
         Path directoryPath = LanguageServerCompilerUtils.getPathFromLanguageServerURI(directoryURI);
-        if (directoryPath == null) {
+        if (directoryPath == null || !Files.isDirectory(directoryPath)) {
             return CompletableFuture.completedFuture(new Object());
         }
 
-        File directoryFile = directoryPath.toFile();
-        if (!directoryFile.isDirectory()) {
-            return CompletableFuture.completedFuture(new Object());
-        }
+        //this may take a while for large directories, so don't tie up the
+        //workspace's executor while it runs
+        return CompletableFutures.computeAsync(cancelToken -> {
+            cancelToken.checkCanceled();
 
-        List<Path> filesToClose = new ArrayList<>();
-        List<String> fileURIs = new ArrayList<>();
-        List<File> directories = new ArrayList<>();
-        directories.add(directoryFile);
-        for (int i = 0; i < directories.size(); i++) {
-            File currentDir = directories.get(i);
-            File[] files = currentDir.listFiles();
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    //add this directory to the list to search
-                    directories.add(file);
-                    continue;
-                }
-                if (!file.getName().endsWith(FILE_EXTENSION_AS) && !file.getName().endsWith(FILE_EXTENSION_MXML)) {
-                    continue;
-                }
-                fileURIs.add(file.toURI().toString());
-                Path filePath = file.toPath();
-                if (!fileTracker.isOpen(filePath)) {
-                    filesToClose.add(file.toPath());
-                    openFileForOrganizeImports(filePath);
-                }
+            List<Path> filePaths = null;
+            try (Stream<Path> stream = Files.walk(directoryPath)) {
+                filePaths = stream.filter(filePath -> {
+                    String fileName = filePath.getFileName().toString();
+                    return fileName.endsWith(FILE_EXTENSION_AS) || fileName.endsWith(FILE_EXTENSION_MXML);
+                }).filter(filePath -> Files.isRegularFile(filePath)).collect(Collectors.toList());
+            } catch (IOException e) {
+                return new Object();
             }
-        }
-        if (fileURIs.size() == 0) {
-            return CompletableFuture.completedFuture(new Object());
-        }
-
-        return CompletableFutures.computeAsync(compilerWorkspace.getExecutorService(), cancelToken -> {
-            cancelToken.checkCanceled();
 
-            compilerWorkspace.startBuilding();
-            ApplyWorkspaceEditParams editParams = null;
+            int threadCount = Math.max(1, Runtime.getRuntime().availableProcessors());
+            ExecutorService executor = Executors.newFixedThreadPool(threadCount, (runnable) -> {
+                Thread thread = new Thread(runnable, "as3mxml-organize-imports");
+                thread.setDaemon(true);
+                return thread;
+            });
             try {
-                cancelToken.checkCanceled();
-                Map<String, List<TextEdit>> changes = new HashMap<>();
-                for (String fileURI : fileURIs) {
-                    organizeImportsInUri(fileURI, changes);
-                }
-
-                if (changes.keySet().size() > 0) {
-                    editParams = new ApplyWorkspaceEditParams();
-                    WorkspaceEdit workspaceEdit = new WorkspaceEdit();
-                    workspaceEdit.setChanges(changes);
-                    editParams.setEdit(workspaceEdit);
+                //only a limited number of files are parsed with their full
+                //ASTs at any given time, and the edits for each batch are
+                //sent to the client before moving on to the next batch
+                for (int i = 0; i < filePaths.size(); i += ORGANIZE_IMPORTS_BATCH_SIZE) {
+                    cancelToken.checkCanceled();
+                    List<Path> batch = filePaths.subList(i,
+                            Math.min(i + ORGANIZE_IMPORTS_BATCH_SIZE, filePaths.size()));
+                    organizeImportsInBatch(batch, executor);
                 }
             } finally {
-                compilerWorkspace.doneBuilding();
-            }
-            for (Path filePath : filesToClose) {
-                fileTracker.closeFile(filePath);
-            }
-            if (editParams != null) {
-                languageClient.applyEdit(editParams);
+                executor.shutdownNow();
             }
             return new Object();
         });
     }
 
+    private void organizeImportsInBatch(List<Path> filePaths, ExecutorService executor) {
+        List<Path> filesToRestore = prepareFilesForOrganizeImports(filePaths);
+        Map<String, List<TextEdit>> changes = new ConcurrentHashMap<>();
+        compilerWorkspace.startBuilding();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Path filePath : filePaths) {
+                futures.add(executor.submit(() -> {
+                    organizeImportsInUri(filePath.toUri().toString(), changes);
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    System.err.println("Exception while organizing imports: " + e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        } finally {
+            compilerWorkspace.doneBuilding();
+            restoreFilesAfterOrganizeImports(filesToRestore);
+        }
+        if (changes.size() > 0) {
+            WorkspaceEdit workspaceEdit = new WorkspaceEdit();
+            workspaceEdit.setChanges(new HashMap<>(changes));
+            languageClient.applyEdit(new ApplyWorkspaceEditParams(workspaceEdit));
+        }
+    }
+
     private CompletableFuture<Object> executeOrganizeImportsInUriCommand(ExecuteCommandParams params) {
         List<Object> args = params.getArguments();
         JsonObject uriObject = (JsonObject) args.get(0);
@@ -186,10 +200,7 @@ public class ExecuteCommandProvider {
             return CompletableFuture.completedFuture(new Object());
         }
 
-        boolean isOpen = fileTracker.isOpen(path);
-        if (!isOpen) {
-            openFileForOrganizeImports(path);
-        }
+        List<Path> filesToRestore = prepareFilesForOrganizeImports(Collections.singletonList(path));
 
         return CompletableFutures.computeAsync(compilerWorkspace.getExecutorService(), cancelToken -> {
             cancelToken.checkCanceled();
@@ -210,9 +221,7 @@ public class ExecuteCommandProvider {
                 }
             } finally {
                 compilerWorkspace.doneBuilding();
-            }
-            if (!isOpen) {
-                fileTracker.closeFile(path);
+                restoreFilesAfterOrganizeImports(filesToRestore);
             }
             if (editParams != null) {
                 languageClient.applyEdit(editParams);
@@ -221,31 +230,43 @@ public class ExecuteCommandProvider {
         });
     }
 
-    private void openFileForOrganizeImports(Path path) {
-        if (fileTracker.isOpen(path)) {
-            //already opened
-            return;
+    /**
+     * For some reason, the full AST is not populated if the file is not
+     * already open in the editor. Files that aren't open are passed to the
+     * workspace as if they were, but they aren't added to the FileTracker.
+     * Returns the files that must be passed to
+     * restoreFilesAfterOrganizeImports() when finished.
+     */
+    private List<Path> prepareFilesForOrganizeImports(List<Path> paths) {
+        List<Path> result = new ArrayList<>();
+        for (Path path : paths) {
+            if (fileTracker.isOpen(path)) {
+                //already opened
+                continue;
+            }
+            IFileSpecification fileSpec = fileTracker.getOpenDocumentFileSpecification(path);
+            if (fileSpec == null) {
+                continue;
+            }
+            compilerWorkspace.fileChanged(fileSpec);
+            result.add(path);
         }
+        return result;
+    }
 
-        //if the file isn't open in an editor, we need to read it from the
-        //file system instead.
-        String text = fileTracker.getText(path);
-        if (text == null) {
-            return;
+    /**
+     * Tells the workspace to read the files from the file system again, so
+     * that their full ASTs may be released.
+     */
+    private void restoreFilesAfterOrganizeImports(List<Path> paths) {
+        for (Path path : paths) {
+            if (fileTracker.isOpen(path)) {
+                //opened in an editor in the meantime
+                continue;
+            }
+            String normalizedPath = FilenameNormalization.normalize(path.toAbsolutePath().toString());
+            compilerWorkspace.fileChanged(fileTracker.getFileSpecification(normalizedPath));
         }
-
-        //for some reason, the full AST is not populated if the file is not
-        //already open in the editor. we use a similar workaround to didOpen
-        //to force the AST to be populated.
-
-        //we'll clear this out later before we return from this function
-        fileTracker.openFile(path, text);
-
-        //notify the workspace that it should read the file from memory
-        //instead of loading from the file system
-        String normalizedPath = FilenameNormalization.normalize(path.toAbsolutePath().toString());
-        IFileSpecification fileSpec = fileTracker.getFileSpecification(normalizedPath);
-        compilerWorkspace.fileChanged(fileSpec);
     }
 
     private void organizeImportsInUri(String uri, Map<String, List<TextEdit>> changes) {
@@ -280,9 +301,9 @@ public class ExecuteCommandProvider {
         }
         if (missingNames != null) {
             importsToAdd = new HashSet<>();
-            Collection<ICompilationUnit> units = project.getCompilationUnits();
-            for (String missingName : missingNames) {
-                List<IDefinition> types = ASTUtils.findTypesThatMatchName(missingName, units);
+            Map<String, List<IDefinition>> typesByName = projectData.typeNameIndex
+                    .findTypesThatMatchNames(project, missingNames);
+            for (List<IDefinition> types : typesByName.values()) {
                 if (types.size() == 1) {
                     //add an import only if exactly one type is found
                     importsToAdd.add(types.get(0).getQualifiedName());
@@ -0,0 +1,80 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.providers;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import com.as3mxml.vscode.project.ActionScriptProjectData;
+import com.as3mxml.vscode.project.ILspProject;
+import com.as3mxml.vscode.utils.ASTokenUtils;
+import com.as3mxml.vscode.utils.ActionScriptProjectManager;
+import com.as3mxml.vscode.utils.LanguageServerCompilerUtils;
+import com.as3mxml.vscode.utils.SyntaxParseCache;
+
+import org.apache.royale.compiler.internal.parsing.as.ASToken;
+import org.apache.royale.utils.FilenameNormalization;
+import org.eclipse.lsp4j.FoldingRange;
+import org.eclipse.lsp4j.FoldingRangeRequestParams;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+
+/**
+ * Finds folding ranges in the tokens of an ActionScript file that doesn't
+ * have a compilation unit, without parsing it. Blocks and comments that span
+ * multiple lines may be folded.
+ */
+public class FoldingRangeProvider {
+    private static final String FILE_EXTENSION_AS = ".as";
+
+    private ActionScriptProjectManager actionScriptProjectManager;
+    private SyntaxParseCache syntaxParseCache;
+
+    public FoldingRangeProvider(ActionScriptProjectManager actionScriptProjectManager,
+            SyntaxParseCache syntaxParseCache) {
+        this.actionScriptProjectManager = actionScriptProjectManager;
+        this.syntaxParseCache = syntaxParseCache;
+    }
+
+    public List<FoldingRange> foldingRange(FoldingRangeRequestParams params, CancelChecker cancelToken) {
+        cancelToken.checkCanceled();
+        TextDocumentIdentifier textDocument = params.getTextDocument();
+        Path path = LanguageServerCompilerUtils.getPathFromLanguageServerURI(textDocument.getUri());
+        if (path == null || !path.toString().endsWith(FILE_EXTENSION_AS)) {
+            //returning null allows the editor to use its default folding
+            cancelToken.checkCanceled();
+            return null;
+        }
+        String normalizedPath = FilenameNormalization.normalize(path.toAbsolutePath().toString());
+        for (ActionScriptProjectData projectData : actionScriptProjectManager.getAllProjectDataForSourceFile(path)) {
+            ILspProject project = projectData.project;
+            if (project != null && !project.getCompilationUnits(normalizedPath).isEmpty()) {
+                //files in a project are already parsed, and the editor's
+                //default folding is good enough for them
+                cancelToken.checkCanceled();
+                return null;
+            }
+        }
+        ASToken[] tokens = syntaxParseCache.getTokens(path);
+        if (tokens == null) {
+            cancelToken.checkCanceled();
+            return null;
+        }
+        List<FoldingRange> result = ASTokenUtils.tokensToFoldingRanges(tokens);
+        cancelToken.checkCanceled();
+        return result;
+    }
+}
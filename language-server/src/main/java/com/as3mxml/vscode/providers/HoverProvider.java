@@ -27,6 +27,7 @@ import com.as3mxml.vscode.utils.DefinitionUtils;
 import com.as3mxml.vscode.utils.FileTracker;
 import com.as3mxml.vscode.utils.LanguageServerCompilerUtils;
 import com.as3mxml.vscode.utils.MXMLDataUtils;
+import com.as3mxml.vscode.utils.RequestResultCache;
 import com.as3mxml.vscode.utils.ActionScriptProjectManager;
 
 import org.apache.royale.compiler.definitions.IClassDefinition;
@@ -56,10 +57,13 @@ public class HoverProvider {
 
     private ActionScriptProjectManager actionScriptProjectManager;
     private FileTracker fileTracker;
+    private RequestResultCache<Hover> hoverCache;
 
-    public HoverProvider(ActionScriptProjectManager actionScriptProjectManager, FileTracker fileTracker) {
+    public HoverProvider(ActionScriptProjectManager actionScriptProjectManager, FileTracker fileTracker,
+            RequestResultCache<Hover> hoverCache) {
         this.actionScriptProjectManager = actionScriptProjectManager;
         this.fileTracker = fileTracker;
+        this.hoverCache = hoverCache;
     }
 
     public Hover hover(HoverParams params, CancelChecker cancelToken) {
@@ -92,7 +96,7 @@ public class HoverProvider {
                 IASNode embeddedNode = actionScriptProjectManager.getEmbeddedActionScriptNodeInMXMLTag(offsetTag, path,
                         currentOffset, projectData);
                 if (embeddedNode != null) {
-                    Hover result = actionScriptHover(embeddedNode, projectData.project);
+                    Hover result = actionScriptHover(embeddedNode, path, projectData.project);
                     cancelToken.checkCanceled();
                     return result;
                 }
@@ -106,18 +110,25 @@ public class HoverProvider {
             }
         }
         IASNode offsetNode = actionScriptProjectManager.getOffsetNode(path, currentOffset, projectData);
-        Hover result = actionScriptHover(offsetNode, projectData.project);
+        Hover result = actionScriptHover(offsetNode, path, projectData.project);
         cancelToken.checkCanceled();
         return result;
     }
 
-    private Hover actionScriptHover(IASNode offsetNode, ILspProject project) {
+    private Hover actionScriptHover(IASNode offsetNode, Path path, ILspProject project) {
         IDefinition definition = null;
         if (offsetNode == null) {
             //we couldn't find a node at the specified location
             return new Hover(Collections.emptyList(), null);
         }
 
+        //the same identifier is often hovered many times in a row
+        Object rangeKey = RequestResultCache.createRangeKey(path, offsetNode, fileTracker);
+        Hover cachedResult = hoverCache.get(rangeKey, project);
+        if (cachedResult != null) {
+            return cachedResult;
+        }
+
         //INamespaceDecorationNode extends IIdentifierNode, but we don't want
         //any hover information for it.
         if (definition == null && offsetNode instanceof IIdentifierNode
@@ -152,7 +163,9 @@ public class HoverProvider {
         }
 
         if (definition == null) {
-            return new Hover(Collections.emptyList(), null);
+            Hover result = new Hover(Collections.emptyList(), null);
+            hoverCache.put(rangeKey, project, result);
+            return result;
         }
 
         IASNode parentNode = offsetNode.getParent();
@@ -169,7 +182,17 @@ public class HoverProvider {
             }
         }
 
-        Hover result = new Hover();
+        Hover result = definitionHover(definition, project);
+        hoverCache.put(rangeKey, project, result);
+        return result;
+    }
+
+    private Hover definitionHover(IDefinition definition, ILspProject project) {
+        Hover result = hoverCache.get(definition, project);
+        if (result != null) {
+            return result;
+        }
+        result = new Hover();
         String detail = DefinitionTextUtils.definitionToDetail(definition, project);
         detail = codeBlock(MARKED_STRING_LANGUAGE_ACTIONSCRIPT, detail);
         String docs = DefinitionDocumentationUtils.getDocumentationForDefinition(definition, true,
@@ -178,6 +201,7 @@ public class HoverProvider {
             detail += "\n\n---\n\n" + docs;
         }
         result.setContents(new MarkupContent(MarkupKind.MARKDOWN, detail));
+        hoverCache.put(definition, project, result);
         return result;
     }
 
@@ -213,15 +237,6 @@ public class HoverProvider {
             return result;
         }
 
-        Hover result = new Hover();
-        String detail = DefinitionTextUtils.definitionToDetail(definition, project);
-        detail = codeBlock(MARKED_STRING_LANGUAGE_ACTIONSCRIPT, detail);
-        String docs = DefinitionDocumentationUtils.getDocumentationForDefinition(definition, true,
-                project.getWorkspace(), true);
-        if (docs != null) {
-            detail += "\n\n---\n\n" + docs;
-        }
-        result.setContents(new MarkupContent(MarkupKind.MARKDOWN, detail));
-        return result;
+        return definitionHover(definition, project);
     }
 }
\ No newline at end of file
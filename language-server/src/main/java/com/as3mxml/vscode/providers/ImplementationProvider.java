@@ -17,14 +17,12 @@ package com.as3mxml.vscode.providers;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
 import com.as3mxml.vscode.project.ILspProject;
 import com.as3mxml.vscode.project.ActionScriptProjectData;
 import com.as3mxml.vscode.utils.CompilationUnitUtils.IncludeFileData;
-import com.as3mxml.vscode.utils.DefinitionUtils;
 import com.as3mxml.vscode.utils.FileTracker;
 import com.as3mxml.vscode.utils.LanguageServerCompilerUtils;
 import com.as3mxml.vscode.utils.MXMLDataUtils;
@@ -33,12 +31,11 @@ import com.as3mxml.vscode.utils.ActionScriptProjectManager;
 import org.apache.royale.compiler.definitions.IClassDefinition;
 import org.apache.royale.compiler.definitions.IDefinition;
 import org.apache.royale.compiler.definitions.IInterfaceDefinition;
+import org.apache.royale.compiler.definitions.ITypeDefinition;
 import org.apache.royale.compiler.internal.mxml.MXMLData;
 import org.apache.royale.compiler.mxml.IMXMLTagData;
 import org.apache.royale.compiler.tree.as.IASNode;
 import org.apache.royale.compiler.tree.as.IIdentifierNode;
-import org.apache.royale.compiler.units.ICompilationUnit;
-import org.apache.royale.compiler.units.ICompilationUnit.UnitType;
 import org.eclipse.lsp4j.ImplementationParams;
 import org.eclipse.lsp4j.Location;
 import org.eclipse.lsp4j.LocationLink;
@@ -90,19 +87,20 @@ public class ImplementationProvider {
                 IASNode embeddedNode = actionScriptProjectManager.getEmbeddedActionScriptNodeInMXMLTag(offsetTag, path,
                         currentOffset, projectData);
                 if (embeddedNode != null) {
-                    List<? extends Location> result = actionScriptImplementation(embeddedNode, project);
+                    List<? extends Location> result = actionScriptImplementation(embeddedNode, project, projectData);
                     cancelToken.checkCanceled();
                     return Either.forLeft(result);
                 }
             }
         }
         IASNode offsetNode = actionScriptProjectManager.getOffsetNode(path, currentOffset, projectData);
-        List<? extends Location> result = actionScriptImplementation(offsetNode, project);
+        List<? extends Location> result = actionScriptImplementation(offsetNode, project, projectData);
         cancelToken.checkCanceled();
         return Either.forLeft(result);
     }
 
-    private List<? extends Location> actionScriptImplementation(IASNode offsetNode, ILspProject project) {
+    private List<? extends Location> actionScriptImplementation(IASNode offsetNode, ILspProject project,
+            ActionScriptProjectData projectData) {
         if (offsetNode == null) {
             //we couldn't find a node at the specified location
             return Collections.emptyList();
@@ -125,33 +123,14 @@ public class ImplementationProvider {
         }
 
         List<Location> result = new ArrayList<>();
-        for (ICompilationUnit unit : project.getCompilationUnits()) {
-            if (unit == null) {
+        for (ITypeDefinition typeDefinition : projectData.typeHierarchyIndex.findAllSourceSubtypes(project,
+                interfaceDefinition.getQualifiedName())) {
+            if (!(typeDefinition instanceof IClassDefinition)) {
                 continue;
             }
-            UnitType unitType = unit.getCompilationUnitType();
-            if (!UnitType.AS_UNIT.equals(unitType) && !UnitType.MXML_UNIT.equals(unitType)) {
-                continue;
-            }
-            Collection<IDefinition> definitions = null;
-            try {
-                definitions = unit.getFileScopeRequest().get().getExternallyVisibleDefinitions();
-            } catch (Exception e) {
-                //safe to ignore
-                continue;
-            }
-
-            for (IDefinition definition : definitions) {
-                if (!(definition instanceof IClassDefinition)) {
-                    continue;
-                }
-                IClassDefinition classDefinition = (IClassDefinition) definition;
-                if (DefinitionUtils.isImplementationOfInterface(classDefinition, interfaceDefinition, project)) {
-                    Location location = actionScriptProjectManager.getLocationFromDefinition(classDefinition, project);
-                    if (location != null) {
-                        result.add(location);
-                    }
-                }
+            Location location = actionScriptProjectManager.getLocationFromDefinition(typeDefinition, project);
+            if (location != null) {
+                result.add(location);
             }
         }
         return result;
@@ -29,6 +29,7 @@ import com.as3mxml.vscode.utils.DefinitionTextUtils;
 import com.as3mxml.vscode.utils.FileTracker;
 import com.as3mxml.vscode.utils.LanguageServerCompilerUtils;
 import com.as3mxml.vscode.utils.MXMLDataUtils;
+import com.as3mxml.vscode.utils.RequestResultCache;
 import com.as3mxml.vscode.utils.ActionScriptProjectManager;
 
 import org.apache.royale.compiler.constants.IASKeywordConstants;
@@ -58,10 +59,13 @@ public class SignatureHelpProvider {
 
 	private ActionScriptProjectManager actionScriptProjectManager;
 	private FileTracker fileTracker;
+	private RequestResultCache<SignatureInformation> signatureCache;
 
-	public SignatureHelpProvider(ActionScriptProjectManager actionScriptProjectManager, FileTracker fileTracker) {
+	public SignatureHelpProvider(ActionScriptProjectManager actionScriptProjectManager, FileTracker fileTracker,
+			RequestResultCache<SignatureInformation> signatureCache) {
 		this.actionScriptProjectManager = actionScriptProjectManager;
 		this.fileTracker = fileTracker;
+		this.signatureCache = signatureCache;
 	}
 
 	public SignatureHelp signatureHelp(SignatureHelpParams params, CancelChecker cancelToken) {
@@ -137,28 +141,7 @@ public class SignatureHelpProvider {
 		if (functionDefinition != null) {
 			SignatureHelp result = new SignatureHelp();
 			List<SignatureInformation> signatures = new ArrayList<>();
-
-			SignatureInformation signatureInfo = new SignatureInformation();
-			signatureInfo.setLabel(DefinitionTextUtils.functionDefinitionToSignature(functionDefinition, project));
-			String docs = DefinitionDocumentationUtils.getDocumentationForDefinition(functionDefinition, true,
-					project.getWorkspace(), true);
-			if (docs != null) {
-				signatureInfo.setDocumentation(new MarkupContent(MarkupKind.MARKDOWN, docs));
-			}
-
-			List<ParameterInformation> parameters = new ArrayList<>();
-			for (IParameterDefinition param : functionDefinition.getParameters()) {
-				ParameterInformation paramInfo = new ParameterInformation();
-				paramInfo.setLabel(param.getBaseName());
-				String paramDocs = DefinitionDocumentationUtils.getDocumentationForParameter(param, true,
-						project.getWorkspace());
-				if (paramDocs != null) {
-					paramInfo.setDocumentation(new MarkupContent(MarkupKind.MARKDOWN, paramDocs));
-				}
-				parameters.add(paramInfo);
-			}
-			signatureInfo.setParameters(parameters);
-			signatures.add(signatureInfo);
+			signatures.add(getSignatureInformation(functionDefinition, project));
 			result.setSignatures(signatures);
 			result.setActiveSignature(0);
 
@@ -189,4 +172,34 @@ public class SignatureHelpProvider {
 		cancelToken.checkCanceled();
 		return new SignatureHelp(Collections.emptyList(), -1, -1);
 	}
+
+	private SignatureInformation getSignatureInformation(IFunctionDefinition functionDefinition,
+			ILspProject project) {
+		SignatureInformation signatureInfo = signatureCache.get(functionDefinition, project);
+		if (signatureInfo != null) {
+			return signatureInfo;
+		}
+		signatureInfo = new SignatureInformation();
+		signatureInfo.setLabel(DefinitionTextUtils.functionDefinitionToSignature(functionDefinition, project));
+		String docs = DefinitionDocumentationUtils.getDocumentationForDefinition(functionDefinition, true,
+				project.getWorkspace(), true);
+		if (docs != null) {
+			signatureInfo.setDocumentation(new MarkupContent(MarkupKind.MARKDOWN, docs));
+		}
+
+		List<ParameterInformation> parameters = new ArrayList<>();
+		for (IParameterDefinition param : functionDefinition.getParameters()) {
+			ParameterInformation paramInfo = new ParameterInformation();
+			paramInfo.setLabel(param.getBaseName());
+			String paramDocs = DefinitionDocumentationUtils.getDocumentationForParameter(param, true,
+					project.getWorkspace());
+			if (paramDocs != null) {
+				paramInfo.setDocumentation(new MarkupContent(MarkupKind.MARKDOWN, paramDocs));
+			}
+			parameters.add(paramInfo);
+		}
+		signatureInfo.setParameters(parameters);
+		signatureCache.put(functionDefinition, project, signatureInfo);
+		return signatureInfo;
+	}
 }
\ No newline at end of file
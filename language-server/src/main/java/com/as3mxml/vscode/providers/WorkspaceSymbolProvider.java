@@ -20,11 +20,14 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import com.as3mxml.vscode.project.ILspProject;
 import com.as3mxml.vscode.project.ActionScriptProjectData;
 import com.as3mxml.vscode.utils.ActionScriptProjectManager;
+import com.as3mxml.vscode.utils.SWCSymbolDiskCache;
+import com.as3mxml.vscode.utils.SWCSymbolDiskCache.CachedSymbol;
 
 import org.apache.royale.compiler.definitions.IDefinition;
 import org.apache.royale.compiler.definitions.IFunctionDefinition;
@@ -41,9 +44,12 @@ import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 
 public class WorkspaceSymbolProvider {
 	private ActionScriptProjectManager actionScriptProjectManager;
+	private SWCSymbolDiskCache swcSymbolDiskCache;
 
-	public WorkspaceSymbolProvider(ActionScriptProjectManager actionScriptProjectManager) {
+	public WorkspaceSymbolProvider(ActionScriptProjectManager actionScriptProjectManager,
+			SWCSymbolDiskCache swcSymbolDiskCache) {
 		this.actionScriptProjectManager = actionScriptProjectManager;
+		this.swcSymbolDiskCache = swcSymbolDiskCache;
 	}
 
 	public List<? extends SymbolInformation> workspaceSymbol(WorkspaceSymbolParams params, CancelChecker cancelToken) {
@@ -67,6 +73,10 @@ public class WorkspaceSymbolProvider {
 		for (ActionScriptProjectData projectData : actionScriptProjectManager.getAllProjectData()) {
 			ILspProject project = projectData.project;
 			if (project == null) {
+				//the project's libraries haven't been loaded yet, but they may
+				//have been cached the last time that the project was loaded
+				querySymbolsInDiskCache(queries, projectData, qualifiedNames, result);
+				querySymbolsInUnloadedProject(queries, projectData, qualifiedNames, result);
 				continue;
 			}
 			for (ICompilationUnit unit : project.getCompilationUnits()) {
@@ -121,6 +131,37 @@ public class WorkspaceSymbolProvider {
 		return result;
 	}
 
+	private void querySymbolsInDiskCache(List<String> queries, ActionScriptProjectData projectData,
+			Set<String> qualifiedNames, Collection<SymbolInformation> result) {
+		if (swcSymbolDiskCache == null) {
+			return;
+		}
+		for (CachedSymbol cachedSymbol : swcSymbolDiskCache.getSymbols(projectData.projectRoot)) {
+			String qualifiedName = cachedSymbol.getQualifiedName();
+			if (qualifiedNames.contains(qualifiedName) || !matchesQueries(queries, qualifiedName)) {
+				continue;
+			}
+			qualifiedNames.add(qualifiedName);
+			result.add(SWCSymbolDiskCache.toSymbolInformation(cachedSymbol));
+		}
+	}
+
+	private void querySymbolsInUnloadedProject(List<String> queries, ActionScriptProjectData projectData,
+			Set<String> qualifiedNames, Collection<SymbolInformation> result) {
+		Map<String, SymbolInformation> unloadedSymbols = projectData.unloadedSymbols;
+		if (unloadedSymbols == null) {
+			return;
+		}
+		for (Map.Entry<String, SymbolInformation> entry : unloadedSymbols.entrySet()) {
+			String qualifiedName = entry.getKey();
+			if (qualifiedNames.contains(qualifiedName) || !matchesQueries(queries, qualifiedName)) {
+				continue;
+			}
+			qualifiedNames.add(qualifiedName);
+			result.add(entry.getValue());
+		}
+	}
+
 	private void querySymbolsInScope(List<String> queries, IASScope scope, Set<String> foundTypes, ILspProject project,
 			Collection<SymbolInformation> result) {
 		Collection<IDefinition> definitions = scope.getAllLocalDefinitions();
@@ -0,0 +1,35 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.services;
+
+/**
+ * Sent to the client while a project's compilation units are being checked
+ * for problems. When checked is equal to total, the check is finished.
+ */
+public class CheckProblemsProgress {
+	public CheckProblemsProgress(String uri, int checked, int total) {
+		this.uri = uri;
+		this.checked = checked;
+		this.total = total;
+	}
+
+	/**
+	 * The URI of the project's root folder.
+	 */
+	public String uri;
+	public int checked;
+	public int total;
+}
@@ -17,7 +17,6 @@ package com.as3mxml.vscode.utils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -225,39 +224,6 @@ public class ASTUtils {
         }
     }
 
-    public static List<IDefinition> findTypesThatMatchName(String nameToFind,
-            Collection<ICompilationUnit> compilationUnits) {
-        ArrayList<IDefinition> result = new ArrayList<>();
-        for (ICompilationUnit unit : compilationUnits) {
-            if (unit == null) {
-                continue;
-            }
-            try {
-                Collection<IDefinition> definitions = unit.getFileScopeRequest().get()
-                        .getExternallyVisibleDefinitions();
-                if (definitions == null) {
-                    continue;
-                }
-                for (IDefinition definition : definitions) {
-                    if (definition instanceof ITypeDefinition) {
-                        ITypeDefinition typeDefinition = (ITypeDefinition) definition;
-                        String baseName = typeDefinition.getBaseName();
-                        if (typeDefinition.getQualifiedName().equals(baseName)) {
-                            //this definition is top-level. no import required.
-                            continue;
-                        }
-                        if (baseName.equals(nameToFind)) {
-                            result.add(typeDefinition);
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                //safe to ignore
-            }
-        }
-        return result;
-    }
-
     public static boolean isFunctionCallWithName(IFunctionCallNode functionCallNode, String functionName) {
         IExpressionNode nameNode = functionCallNode.getNameNode();
         if (nameNode instanceof IIdentifierNode) {
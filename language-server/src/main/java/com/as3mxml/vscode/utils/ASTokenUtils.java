@@ -0,0 +1,199 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.apache.royale.compiler.internal.parsing.as.ASToken;
+import org.apache.royale.compiler.internal.parsing.as.ASTokenTypes;
+import org.eclipse.lsp4j.DocumentSymbol;
+import org.eclipse.lsp4j.FoldingRange;
+import org.eclipse.lsp4j.FoldingRangeKind;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SymbolKind;
+
+/**
+ * Finds information in the tokens of an ActionScript file that hasn't been
+ * parsed, like a file without a compilation unit.
+ */
+public class ASTokenUtils {
+    /**
+     * Finds the blocks and comments that span multiple lines. The tokens must
+     * include comments.
+     */
+    public static List<FoldingRange> tokensToFoldingRanges(ASToken[] tokens) {
+        List<FoldingRange> result = new ArrayList<>();
+        Deque<ASToken> openTokens = new ArrayDeque<>();
+        for (ASToken token : tokens) {
+            int tokenType = token.getType();
+            if (tokenType == ASTokenTypes.TOKEN_BLOCK_OPEN) {
+                openTokens.push(token);
+            } else if (tokenType == ASTokenTypes.TOKEN_BLOCK_CLOSE) {
+                if (openTokens.isEmpty()) {
+                    continue;
+                }
+                ASToken openToken = openTokens.pop();
+                //keep the line with the closing brace visible
+                int endLine = token.getLine() - 1;
+                if (openToken.getLine() != -1 && endLine > openToken.getLine()) {
+                    result.add(new FoldingRange(openToken.getLine(), endLine));
+                }
+            } else if (tokenType == ASTokenTypes.TOKEN_ASDOC_COMMENT
+                    || tokenType == ASTokenTypes.HIDDEN_TOKEN_MULTI_LINE_COMMENT) {
+                if (token.getLine() == -1) {
+                    continue;
+                }
+                //the tokenizer doesn't set the end line of comments
+                int endLine = token.getLine() + countLines(token.getText()) - 1;
+                if (endLine > token.getLine()) {
+                    FoldingRange foldingRange = new FoldingRange(token.getLine(), endLine);
+                    foldingRange.setKind(FoldingRangeKind.Comment);
+                    result.add(foldingRange);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the declarations of types, and their members, and top-level
+     * functions and variables. Local declarations inside the body of a
+     * function, including an anonymous function, are skipped.
+     */
+    public static List<DocumentSymbol> tokensToDocumentSymbols(ASToken[] tokens) {
+        List<DocumentSymbol> result = new ArrayList<>();
+        //the symbols of the open blocks that are types or functions
+        Deque<DocumentSymbol> blockSymbols = new ArrayDeque<>();
+        Deque<Integer> blockDepths = new ArrayDeque<>();
+        DocumentSymbol symbolBeforeBlock = null;
+        int depth = 0;
+        for (int i = 0; i < tokens.length; i++) {
+            ASToken token = tokens[i];
+            int tokenType = token.getType();
+            if (tokenType == ASTokenTypes.TOKEN_BLOCK_OPEN) {
+                depth++;
+                if (symbolBeforeBlock != null) {
+                    blockSymbols.push(symbolBeforeBlock);
+                    blockDepths.push(depth);
+                    symbolBeforeBlock = null;
+                }
+                continue;
+            }
+            if (tokenType == ASTokenTypes.TOKEN_BLOCK_CLOSE) {
+                if (!blockDepths.isEmpty() && blockDepths.peek() == depth) {
+                    blockSymbols.pop();
+                    blockDepths.pop();
+                }
+                depth--;
+                continue;
+            }
+            if (tokenType == ASTokenTypes.TOKEN_SEMICOLON) {
+                //an interface method has no body
+                symbolBeforeBlock = null;
+                continue;
+            }
+            if (tokenType != ASTokenTypes.TOKEN_KEYWORD_CLASS && tokenType != ASTokenTypes.TOKEN_KEYWORD_INTERFACE
+                    && tokenType != ASTokenTypes.TOKEN_KEYWORD_FUNCTION && tokenType != ASTokenTypes.TOKEN_KEYWORD_VAR
+                    && tokenType != ASTokenTypes.TOKEN_KEYWORD_CONST) {
+                continue;
+            }
+            DocumentSymbol parentSymbol = blockSymbols.peek();
+            boolean insideType = parentSymbol != null && (SymbolKind.Class.equals(parentSymbol.getKind())
+                    || SymbolKind.Interface.equals(parentSymbol.getKind()));
+            if (parentSymbol != null && !insideType) {
+                //local declarations aren't included
+                continue;
+            }
+            if (i + 1 >= tokens.length) {
+                break;
+            }
+            ASToken nameToken = tokens[i + 1];
+            boolean isAccessor = false;
+            if (tokenType == ASTokenTypes.TOKEN_KEYWORD_FUNCTION
+                    && (nameToken.getType() == ASTokenTypes.TOKEN_RESERVED_WORD_GET
+                            || nameToken.getType() == ASTokenTypes.TOKEN_RESERVED_WORD_SET)
+                    && i + 2 < tokens.length && tokens[i + 2].getType() == ASTokenTypes.TOKEN_IDENTIFIER) {
+                nameToken = tokens[i + 2];
+                isAccessor = true;
+            }
+            if (tokenType == ASTokenTypes.TOKEN_KEYWORD_FUNCTION
+                    && nameToken.getType() == ASTokenTypes.TOKEN_PAREN_OPEN) {
+                //an anonymous function isn't included, but its body is
+                //skipped like any other function's
+                DocumentSymbol anonymousSymbol = new DocumentSymbol();
+                anonymousSymbol.setKind(SymbolKind.Function);
+                symbolBeforeBlock = anonymousSymbol;
+                continue;
+            }
+            if (nameToken.getType() != ASTokenTypes.TOKEN_IDENTIFIER) {
+                //probably incomplete code
+                continue;
+            }
+            Range range = LanguageServerCompilerUtils.getRangeFromSourceLocation(nameToken);
+            if (range == null) {
+                continue;
+            }
+            DocumentSymbol symbol = new DocumentSymbol();
+            symbol.setName(nameToken.getText());
+            symbol.setRange(range);
+            symbol.setSelectionRange(range);
+            symbol.setChildren(new ArrayList<>());
+            if (tokenType == ASTokenTypes.TOKEN_KEYWORD_CLASS) {
+                symbol.setKind(SymbolKind.Class);
+                symbolBeforeBlock = symbol;
+            } else if (tokenType == ASTokenTypes.TOKEN_KEYWORD_INTERFACE) {
+                symbol.setKind(SymbolKind.Interface);
+                symbolBeforeBlock = symbol;
+            } else if (tokenType == ASTokenTypes.TOKEN_KEYWORD_FUNCTION) {
+                if (isAccessor) {
+                    symbol.setKind(SymbolKind.Property);
+                } else if (insideType && parentSymbol.getName().equals(symbol.getName())) {
+                    symbol.setKind(SymbolKind.Constructor);
+                } else if (insideType) {
+                    symbol.setKind(SymbolKind.Method);
+                } else {
+                    symbol.setKind(SymbolKind.Function);
+                }
+                symbolBeforeBlock = symbol;
+            } else if (tokenType == ASTokenTypes.TOKEN_KEYWORD_CONST) {
+                symbol.setKind(SymbolKind.Constant);
+            } else if (insideType) {
+                symbol.setKind(SymbolKind.Field);
+            } else {
+                symbol.setKind(SymbolKind.Variable);
+            }
+            if (parentSymbol == null) {
+                result.add(symbol);
+            } else {
+                parentSymbol.getChildren().add(symbol);
+            }
+        }
+        return result;
+    }
+
+    private static int countLines(String text) {
+        int count = 1;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+}
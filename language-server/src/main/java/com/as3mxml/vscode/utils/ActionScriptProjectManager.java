@@ -21,7 +21,13 @@ import java.net.URI;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -69,14 +75,20 @@ public class ActionScriptProjectManager {
     private static final String SDK_LIBRARY_PATH_SIGNATURE_UNIX = "/frameworks/libs/";
     private static final String SDK_LIBRARY_PATH_SIGNATURE_WINDOWS = "\\frameworks\\libs\\";
 
-    private List<ActionScriptProjectData> allProjectData = new ArrayList<>();
-    private List<WorkspaceFolder> workspaceFolders = new ArrayList<>();
+    //projects may be bootstrapped on other threads, so these lists may be
+    //read while they are being modified
+    private List<ActionScriptProjectData> allProjectData = new CopyOnWriteArrayList<>();
+    private List<WorkspaceFolder> workspaceFolders = new CopyOnWriteArrayList<>();
     private FileTracker fileTracker;
     private IProjectConfigStrategyFactory projectConfigStrategyFactory;
     private ActionScriptProjectData fallbackProjectData;
     private LanguageClient languageClient;
     private Predicate<ActionScriptProjectData> addProjectCallback;
     private Predicate<ActionScriptProjectData> removeProjectCallback;
+    private PathPrefixTrie<ActionScriptProjectData> sourcePathTrie = new PathPrefixTrie<>();
+    private Map<ActionScriptProjectData, ILspProject> sourcePathTrieProjects = new HashMap<>();
+    private boolean sourcePathTrieInvalid = false;
+    private Set<Path> directoriesCheckedForConfigFiles = ConcurrentHashMap.newKeySet();
 
     public ActionScriptProjectManager(FileTracker fileTracker, IProjectConfigStrategyFactory factory,
             Predicate<ActionScriptProjectData> addProjectCallback,
@@ -93,6 +105,7 @@ public class ActionScriptProjectManager {
 
     public void addWorkspaceFolder(WorkspaceFolder folder) {
         workspaceFolders.add(folder);
+        directoriesCheckedForConfigFiles.clear();
         Path projectRoot = Paths.get(URI.create(folder.getUri()));
         addProject(projectRoot, folder);
     }
@@ -102,6 +115,7 @@ public class ActionScriptProjectManager {
             return;
         }
         workspaceFolders.remove(folder);
+        directoriesCheckedForConfigFiles.clear();
         for (ActionScriptProjectData projectData : allProjectData) {
             if (!folder.equals(projectData.folder)) {
                 continue;
@@ -143,14 +157,24 @@ public class ActionScriptProjectManager {
     }
 
     public ActionScriptProjectData getProjectDataForSourceFile(Path path) {
+        ActionScriptProjectData result = findProjectDataForSourceFile(path);
+        if (result != null) {
+            //projects that have been used recently are not unloaded
+            result.lastAccessTime = System.currentTimeMillis();
+        }
+        return result;
+    }
+
+    private ActionScriptProjectData findProjectDataForSourceFile(Path path) {
         checkForMissingProjectsContainingSourceFile(path);
 
         //first try to find the path in an existing project
+        Set<ActionScriptProjectData> sourcePathMatches = findProjectDataWithSourcePathContaining(path);
         ActionScriptProjectData bestMatch = null;
         ActionScriptProjectData fallback = null;
         for (ActionScriptProjectData projectData : allProjectData) {
-            ILspProject project = projectData.project;
-            if (project == null) {
+            if (!sourcePathMatches.contains(projectData)) {
+                //not in the source path
                 continue;
             }
             Path projectRoot = projectData.projectRoot;
@@ -161,21 +185,19 @@ public class ActionScriptProjectManager {
                 //even if it's in the source path, it's not a better match
                 continue;
             }
-            if (SourcePathUtils.isInProjectSourcePath(path, project, projectData.configurator)) {
-                if (path.startsWith(projectRoot)) {
-                    //if the source path is inside the project root folder, then
-                    //the project is a candidate (we'll compare depths later)
-                    bestMatch = projectData;
-                    continue;
-                }
-                //if path is in the source path, but not inside the workspace
-                //folder, save it as possible result for later. in other words,
-                //we always prefer a workspace that contains the file, so we'll
-                //check the other workspaces before using the fallback.
-                if (fallback == null) {
-                    fallback = projectData;
-                    continue;
-                }
+            if (path.startsWith(projectRoot)) {
+                //if the source path is inside the project root folder, then
+                //the project is a candidate (we'll compare depths later)
+                bestMatch = projectData;
+                continue;
+            }
+            //if path is in the source path, but not inside the workspace
+            //folder, save it as possible result for later. in other words,
+            //we always prefer a workspace that contains the file, so we'll
+            //check the other workspaces before using the fallback.
+            if (fallback == null) {
+                fallback = projectData;
+                continue;
             }
         }
         if (bestMatch != null) {
@@ -208,7 +230,7 @@ public class ActionScriptProjectManager {
 
     public boolean hasOpenFilesForProject(ActionScriptProjectData project) {
         for (Path openFilePath : fileTracker.getOpenFiles()) {
-            ActionScriptProjectData otherProject = getProjectDataForSourceFile(openFilePath);
+            ActionScriptProjectData otherProject = findProjectDataForSourceFile(openFilePath);
             if (otherProject == project) {
                 return true;
             }
@@ -361,6 +383,7 @@ public class ActionScriptProjectManager {
     }
 
     public List<ActionScriptProjectData> getAllProjectDataForSourceFile(Path path) {
+        Set<ActionScriptProjectData> sourcePathMatches = findProjectDataWithSourcePathContaining(path);
         List<ActionScriptProjectData> result = new ArrayList<>();
         for (ActionScriptProjectData projectData : allProjectData) {
             ILspProject project = projectData.project;
@@ -369,7 +392,7 @@ public class ActionScriptProjectManager {
                 if (path.startsWith(projectRoot)) {
                     result.add(projectData);
                 }
-            } else if (SourcePathUtils.isInProjectSourcePath(path, project, projectData.configurator)) {
+            } else if (sourcePathMatches.contains(projectData)) {
                 result.add(projectData);
             }
         }
@@ -647,7 +670,7 @@ public class ActionScriptProjectManager {
         result.add(location);
     }
 
-    private ActionScriptProjectData addProject(Path projectRoot, WorkspaceFolder workspaceFolder) {
+    private synchronized ActionScriptProjectData addProject(Path projectRoot, WorkspaceFolder workspaceFolder) {
         IProjectConfigStrategy config = projectConfigStrategyFactory.create(projectRoot, workspaceFolder);
         ActionScriptProjectData projectData = new ActionScriptProjectData(projectRoot, workspaceFolder, config);
         projectData.codeProblemTracker.setLanguageClient(languageClient);
@@ -657,14 +680,94 @@ public class ActionScriptProjectManager {
         return projectData;
     }
 
-    private void removeProject(ActionScriptProjectData projectData) {
+    private synchronized void removeProject(ActionScriptProjectData projectData) {
         removeProjectCallback.test(projectData);
         allProjectData.remove(projectData);
         projectData.cleanup();
     }
 
-    private void checkForMissingProjectsContainingSourceFile(Path path) {
-        String configFileName = null;
+    /**
+     * Should be called when a file is created in a workspace folder. If it's a
+     * project configuration file, directories that were previously checked
+     * for configuration files need to be checked again.
+     */
+    public void didCreateFile(Path path) {
+        String configFileName = getConfigFileName();
+        if (configFileName == null || path.getFileName() == null) {
+            return;
+        }
+        if (configFileName.equals(path.getFileName().toString())) {
+            directoriesCheckedForConfigFiles.clear();
+        }
+    }
+
+    /**
+     * Should be called when a source file is changed, added, or removed, with
+     * its normalized path. The type indexes of every project that may use the
+     * file are updated before they're queried again.
+     */
+    public void didChangeSourceFile(String path) {
+        for (ActionScriptProjectData projectData : allProjectData) {
+            markSourceFileChanged(path, projectData);
+        }
+        if (fallbackProjectData != null) {
+            markSourceFileChanged(path, fallbackProjectData);
+        }
+    }
+
+    private void markSourceFileChanged(String path, ActionScriptProjectData projectData) {
+        projectData.typeHierarchyIndex.markChanged(path);
+        projectData.typeNameIndex.markChanged(path);
+    }
+
+    /**
+     * Should be called when the source path or include sources of an existing
+     * project are changed, without creating a new ILspProject.
+     */
+    public synchronized void invalidateSourcePathTrie() {
+        sourcePathTrieInvalid = true;
+    }
+
+    /**
+     * The source path trie is rebuilt when a project is added or removed,
+     * when a new ILspProject is created for a project, or when it has been
+     * invalidated because an existing project was reconfigured.
+     */
+    private synchronized Set<ActionScriptProjectData> findProjectDataWithSourcePathContaining(Path path) {
+        return new HashSet<>(getSourcePathTrie().findAll(path));
+    }
+
+    private PathPrefixTrie<ActionScriptProjectData> getSourcePathTrie() {
+        boolean changed = sourcePathTrieInvalid || sourcePathTrieProjects.size() != allProjectData.size();
+        if (!changed) {
+            for (ActionScriptProjectData projectData : allProjectData) {
+                if (!sourcePathTrieProjects.containsKey(projectData)
+                        || sourcePathTrieProjects.get(projectData) != projectData.project) {
+                    changed = true;
+                    break;
+                }
+            }
+        }
+        if (!changed) {
+            return sourcePathTrie;
+        }
+        sourcePathTrie.clear();
+        sourcePathTrieProjects.clear();
+        sourcePathTrieInvalid = false;
+        for (ActionScriptProjectData projectData : allProjectData) {
+            ILspProject project = projectData.project;
+            sourcePathTrieProjects.put(projectData, project);
+            if (project == null) {
+                continue;
+            }
+            for (Path sourcePathRoot : SourcePathUtils.getSourcePathRoots(project, projectData.configurator)) {
+                sourcePathTrie.put(sourcePathRoot, projectData);
+            }
+        }
+        return sourcePathTrie;
+    }
+
+    private String getConfigFileName() {
         for (ActionScriptProjectData projectData : allProjectData) {
             if (projectData.config == null) {
                 continue;
@@ -674,14 +777,24 @@ public class ActionScriptProjectManager {
                 continue;
             }
             // this assumes that the configFileName is the same for all projects
-            configFileName = configFilePath.getFileName().toString();
-            break;
+            return configFilePath.getFileName().toString();
         }
+        return null;
+    }
 
+    private synchronized void checkForMissingProjectsContainingSourceFile(Path path) {
+        String configFileName = getConfigFileName();
         if (configFileName == null) {
             return;
         }
 
+        Path parentPath = path.getParent();
+        if (parentPath == null || directoriesCheckedForConfigFiles.contains(parentPath)) {
+            //we've already looked for configuration files in this directory
+            //and all of its parents
+            return;
+        }
+
         for (WorkspaceFolder folder : workspaceFolders) {
             Path workspaceFolderPath = LanguageServerCompilerUtils.getPathFromLanguageServerURI(folder.getUri());
             if (workspaceFolderPath == null) {
@@ -713,6 +826,7 @@ public class ActionScriptProjectManager {
                 currentPath = currentPath.getParent();
             } while (currentPath != null && currentPath.startsWith(workspaceFolderPath));
         }
+        directoriesCheckedForConfigFiles.add(parentPath);
     }
 
     private List<ActionScriptProjectData> getAllProjectDataForWorkspaceFolder(WorkspaceFolder folder) {
@@ -85,10 +85,9 @@ public class CompilationUnitUtils {
 
 	private static void findActionScriptIncludes(ICompilationUnit unit, Map<String, IncludeFileData> includes) {
 		try {
+			//the include handler is populated by the parser, so there's no
+			//need to wait for the other requests (especially not bytecode)
 			IASNode ast = unit.getSyntaxTreeRequest().get().getAST();
-			unit.getFileScopeRequest().get();
-			unit.getOutgoingDependenciesRequest().get();
-			unit.getABCBytesRequest().get();
 			if (ast instanceof FileNode) {
 				FileNode fileNode = (FileNode) ast;
 				String parentPath = unit.getAbsoluteFilename();
@@ -27,6 +27,7 @@ import com.as3mxml.asconfigc.utils.OptionsUtils;
 import com.as3mxml.vscode.project.ILspProject;
 import com.as3mxml.vscode.project.LspJSProject;
 import com.as3mxml.vscode.project.LspProject;
+import com.as3mxml.vscode.project.LspProjectConfigurator;
 import com.as3mxml.vscode.project.ProjectOptions;
 import com.as3mxml.vscode.project.VSCodeConfiguration;
 
@@ -152,10 +153,10 @@ public class CompilerProjectUtils {
         List<String> compilerOptions = projectOptions.compilerOptions;
         RoyaleProjectConfigurator configurator = null;
         if (project instanceof RoyaleJSProject || frameworkSDKIsRoyale) {
-            configurator = new RoyaleProjectConfigurator(JSGoogConfiguration.class);
+            configurator = new LspProjectConfigurator(JSGoogConfiguration.class);
         } else //swf only
         {
-            configurator = new RoyaleProjectConfigurator(VSCodeConfiguration.class);
+            configurator = new LspProjectConfigurator(VSCodeConfiguration.class);
         }
         if (frameworkSDKIsRoyale) {
             configurator.setToken(TOKEN_ROYALELIB, System.getProperty(PROPERTY_FRAMEWORK_LIB));
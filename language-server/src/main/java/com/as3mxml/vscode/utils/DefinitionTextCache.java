@@ -0,0 +1,90 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.utils;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.as3mxml.vscode.utils.DefinitionTextUtils.DefinitionAsText;
+
+import org.apache.royale.compiler.definitions.IDefinition;
+
+/**
+ * Remembers the text documents generated for definitions in SWC files, so
+ * that going to the same definition again, or to another member of the same
+ * type, doesn't generate the whole document again. Documents are keyed by the
+ * SWC file's path and modification time, and the definition's qualified name.
+ * Only the most recently used documents are kept.
+ */
+public class DefinitionTextCache {
+    private static final int MAX_DOCUMENTS = 32;
+
+    private static final DefinitionTextCache instance = new DefinitionTextCache();
+
+    public static DefinitionTextCache getInstance() {
+        return instance;
+    }
+
+    private DefinitionTextCache() {
+    }
+
+    private Map<String, DefinitionAsText> documents = new LinkedHashMap<String, DefinitionAsText>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, DefinitionAsText> eldest) {
+            return size() > MAX_DOCUMENTS;
+        }
+    };
+
+    /**
+     * Returns the text document for the definition. If it isn't cached, it's
+     * created by the supplier.
+     */
+    public DefinitionAsText get(IDefinition definition, Supplier<DefinitionAsText> supplier) {
+        String key = getKey(definition);
+        if (key == null) {
+            return supplier.get();
+        }
+        synchronized (this) {
+            DefinitionAsText document = documents.get(key);
+            if (document != null) {
+                return document;
+            }
+        }
+        DefinitionAsText document = supplier.get();
+        if (document != null) {
+            synchronized (this) {
+                documents.put(key, document);
+            }
+        }
+        return document;
+    }
+
+    private String getKey(IDefinition definition) {
+        String containingFilePath = definition.getContainingFilePath();
+        if (containingFilePath == null) {
+            return null;
+        }
+        File containingFile = new File(containingFilePath);
+        if (!containingFile.isFile()) {
+            return null;
+        }
+        return containingFilePath + "\n" + containingFile.lastModified() + "\n" + definition.getQualifiedName();
+    }
+}
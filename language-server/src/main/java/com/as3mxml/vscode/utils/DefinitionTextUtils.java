@@ -18,6 +18,8 @@ package com.as3mxml.vscode.utils;
 import java.net.URI;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
 
 import com.google.common.net.UrlEscapers;
 
@@ -42,6 +44,7 @@ import org.apache.royale.compiler.definitions.IVariableDefinition;
 import org.apache.royale.compiler.definitions.INamespaceDefinition.IInterfaceNamespaceDefinition;
 import org.apache.royale.compiler.definitions.metadata.IMetaTag;
 import org.apache.royale.compiler.definitions.metadata.IMetaTagAttribute;
+import org.apache.royale.compiler.definitions.references.INamespaceReference;
 import org.apache.royale.compiler.projects.ICompilerProject;
 import org.eclipse.lsp4j.Location;
 import org.eclipse.lsp4j.Position;
@@ -126,6 +129,9 @@ public class DefinitionTextUtils {
         public int endColumn = 0;
         public String text;
         public String path;
+        //the offset of each definition's name in the text
+        private Map<String, Integer> nameOffsets = new HashMap<>();
+        private String uri;
 
         public Range toRange() {
             Position start = new Position();
@@ -142,58 +148,121 @@ public class DefinitionTextUtils {
 
         public Location toLocation() {
             Location location = new Location();
-            String escapedText = UrlEscapers.urlFragmentEscaper().escape(text);
-            URI uri = URI.create("swc://" + path + "?" + escapedText);
-            location.setUri(uri.toString());
+            location.setUri(uri != null ? uri : createURI());
             location.setRange(toRange());
             return location;
         }
+
+        private String createURI() {
+            String escapedText = UrlEscapers.urlFragmentEscaper().escape(text);
+            return URI.create("swc://" + path + "?" + escapedText).toString();
+        }
     }
 
     public static DefinitionAsText definitionToTextDocument(IDefinition definition, ICompilerProject currentProject) {
-        if (definition instanceof IClassDefinition) {
-            IClassDefinition classDefinition = (IClassDefinition) definition;
-            return classDefinitionToTextDocument(classDefinition, currentProject, definition);
+        IDefinition documentDefinition = getTextDocumentDefinition(definition);
+        if (documentDefinition == null) {
+            return null;
         }
-        if (definition instanceof IInterfaceDefinition) {
-            IInterfaceDefinition interfaceDefinition = (IInterfaceDefinition) definition;
-            return interfaceDefinitionToTextDocument(interfaceDefinition, currentProject, definition);
+        DefinitionAsText document = DefinitionTextCache.getInstance().get(documentDefinition, () -> {
+            return createTextDocument(documentDefinition, currentProject);
+        });
+        if (document == null) {
+            return null;
         }
-        if (definition instanceof IFunctionDefinition) {
-            IFunctionDefinition functionDefinition = (IFunctionDefinition) definition;
-            IDefinition parentDefinition = functionDefinition.getParent();
-            if (parentDefinition instanceof ITypeDefinition) {
-                if (parentDefinition instanceof IClassDefinition) {
-                    IClassDefinition classDefinition = (IClassDefinition) parentDefinition;
-                    return classDefinitionToTextDocument(classDefinition, currentProject, definition);
-                } else if (parentDefinition instanceof IInterfaceDefinition) {
-                    IInterfaceDefinition interfaceDefinition = (IInterfaceDefinition) parentDefinition;
-                    return interfaceDefinitionToTextDocument(interfaceDefinition, currentProject, definition);
-                }
-            } else {
-                return functionDefinitionToTextDocument(functionDefinition, currentProject, definition);
+        DefinitionAsText result = new DefinitionAsText();
+        result.text = document.text;
+        result.path = document.path;
+        result.uri = document.uri;
+        Integer nameOffset = document.nameOffsets.get(definitionToNameKey(definition));
+        if (nameOffset != null) {
+            int line = 0;
+            int lineStartIndex = 0;
+            int newLineIndex = document.text.indexOf(NEW_LINE);
+            while (newLineIndex != -1 && newLineIndex < nameOffset) {
+                line++;
+                lineStartIndex = newLineIndex + 1;
+                newLineIndex = document.text.indexOf(NEW_LINE, lineStartIndex);
             }
+            result.startLine = line;
+            result.startColumn = nameOffset - lineStartIndex;
+            result.endLine = result.startLine;
+            result.endColumn = result.startColumn + definition.getBaseName().length();
         }
-        if (definition instanceof IVariableDefinition) {
-            IVariableDefinition variableDefinition = (IVariableDefinition) definition;
-            IDefinition parentDefinition = variableDefinition.getParent();
+        return result;
+    }
+
+    /**
+     * Returns the definition that the generated text document is created
+     * for, which may be the definition itself, or the type that contains it.
+     */
+    private static IDefinition getTextDocumentDefinition(IDefinition definition) {
+        if (definition instanceof IClassDefinition || definition instanceof IInterfaceDefinition) {
+            return definition;
+        }
+        if (definition instanceof IFunctionDefinition || definition instanceof IVariableDefinition) {
+            IDefinition parentDefinition = definition.getParent();
             if (parentDefinition instanceof ITypeDefinition) {
-                if (parentDefinition instanceof IClassDefinition) {
-                    IClassDefinition classDefinition = (IClassDefinition) parentDefinition;
-                    return classDefinitionToTextDocument(classDefinition, currentProject, definition);
-                } else if (parentDefinition instanceof IInterfaceDefinition) {
-                    IInterfaceDefinition interfaceDefinition = (IInterfaceDefinition) parentDefinition;
-                    return interfaceDefinitionToTextDocument(interfaceDefinition, currentProject, definition);
+                if (parentDefinition instanceof IClassDefinition || parentDefinition instanceof IInterfaceDefinition) {
+                    return parentDefinition;
                 }
-            } else {
-                return variableDefinitionToTextDocument(variableDefinition, currentProject, definition);
+                return null;
             }
+            return definition;
         }
         return null;
     }
 
+    private static DefinitionAsText createTextDocument(IDefinition definition, ICompilerProject currentProject) {
+        DefinitionAsText result = null;
+        if (definition instanceof IClassDefinition) {
+            result = classDefinitionToTextDocument((IClassDefinition) definition, currentProject);
+        } else if (definition instanceof IInterfaceDefinition) {
+            result = interfaceDefinitionToTextDocument((IInterfaceDefinition) definition, currentProject);
+        } else if (definition instanceof IFunctionDefinition) {
+            result = functionDefinitionToTextDocument((IFunctionDefinition) definition, currentProject);
+        } else if (definition instanceof IVariableDefinition) {
+            result = variableDefinitionToTextDocument((IVariableDefinition) definition, currentProject);
+        }
+        if (result != null) {
+            //the text is shared by every definition in the document, so the
+            //uri only needs to be escaped once
+            result.uri = result.createURI();
+        }
+        return result;
+    }
+
+    /**
+     * Identifies a definition within its generated text document. Unlike the
+     * definition itself, it stays the same when the library is loaded again.
+     */
+    private static String definitionToNameKey(IDefinition definition) {
+        StringBuilder builder = new StringBuilder();
+        if (definition instanceof ITypeDefinition) {
+            builder.append("type ");
+        } else if (definition instanceof IGetterDefinition) {
+            builder.append("get ");
+        } else if (definition instanceof ISetterDefinition) {
+            builder.append("set ");
+        } else if (definition instanceof IFunctionDefinition) {
+            builder.append("function ");
+        } else if (definition instanceof IVariableDefinition) {
+            builder.append("var ");
+        }
+        if (definition.isStatic()) {
+            builder.append("static ");
+        }
+        INamespaceReference namespaceReference = definition.getNamespaceReference();
+        if (namespaceReference != null) {
+            builder.append(namespaceReference.getBaseName());
+            builder.append("::");
+        }
+        builder.append(definition.getBaseName());
+        return builder.toString();
+    }
+
     private static DefinitionAsText classDefinitionToTextDocument(IClassDefinition classDefinition,
-            ICompilerProject currentProject, IDefinition definitionToFind) {
+            ICompilerProject currentProject) {
         DefinitionAsText result = new DefinitionAsText();
         result.path = definitionToGeneratedPath(classDefinition);
         String indent = "";
@@ -209,8 +278,7 @@ public class DefinitionTextUtils {
         textDocumentBuilder.append("{");
         textDocumentBuilder.append(NEW_LINE);
         indent = increaseIndent(indent);
-        insertClassDefinitionIntoTextDocument(classDefinition, textDocumentBuilder, indent, currentProject, result,
-                definitionToFind);
+        insertClassDefinitionIntoTextDocument(classDefinition, textDocumentBuilder, indent, currentProject, result);
         indent = decreaseIndent(indent);
         textDocumentBuilder.append("}");
         result.text = textDocumentBuilder.toString();
@@ -218,7 +286,7 @@ public class DefinitionTextUtils {
     }
 
     private static DefinitionAsText interfaceDefinitionToTextDocument(IInterfaceDefinition interfaceDefinition,
-            ICompilerProject currentProject, IDefinition definitionToFind) {
+            ICompilerProject currentProject) {
         DefinitionAsText result = new DefinitionAsText();
         result.path = definitionToGeneratedPath(interfaceDefinition);
         String indent = "";
@@ -235,7 +303,7 @@ public class DefinitionTextUtils {
         textDocumentBuilder.append(NEW_LINE);
         indent = increaseIndent(indent);
         insertInterfaceDefinitionIntoTextDocument(interfaceDefinition, textDocumentBuilder, indent, currentProject,
-                result, definitionToFind);
+                result);
         indent = decreaseIndent(indent);
         textDocumentBuilder.append("}");
         result.text = textDocumentBuilder.toString();
@@ -243,7 +311,7 @@ public class DefinitionTextUtils {
     }
 
     private static DefinitionAsText functionDefinitionToTextDocument(IFunctionDefinition functionDefinition,
-            ICompilerProject currentProject, IDefinition definitionToFind) {
+            ICompilerProject currentProject) {
         DefinitionAsText result = new DefinitionAsText();
         result.path = definitionToGeneratedPath(functionDefinition);
         String indent = "";
@@ -260,7 +328,7 @@ public class DefinitionTextUtils {
         textDocumentBuilder.append(NEW_LINE);
         indent = increaseIndent(indent);
         insertFunctionDefinitionIntoTextDocument(functionDefinition, textDocumentBuilder, indent, currentProject,
-                result, definitionToFind);
+                result);
         indent = decreaseIndent(indent);
         textDocumentBuilder.append("}");
         result.text = textDocumentBuilder.toString();
@@ -268,7 +336,7 @@ public class DefinitionTextUtils {
     }
 
     private static DefinitionAsText variableDefinitionToTextDocument(IVariableDefinition variableDefinition,
-            ICompilerProject currentProject, IDefinition definitionToFind) {
+            ICompilerProject currentProject) {
         DefinitionAsText result = new DefinitionAsText();
         result.path = definitionToGeneratedPath(variableDefinition);
         String indent = "";
@@ -285,7 +353,7 @@ public class DefinitionTextUtils {
         textDocumentBuilder.append(NEW_LINE);
         indent = increaseIndent(indent);
         insertVariableDefinitionIntoTextDocument(variableDefinition, textDocumentBuilder, indent, currentProject,
-                result, definitionToFind);
+                result);
         indent = decreaseIndent(indent);
         textDocumentBuilder.append("}");
         result.text = textDocumentBuilder.toString();
@@ -293,10 +361,9 @@ public class DefinitionTextUtils {
     }
 
     private static void insertClassDefinitionIntoTextDocument(IClassDefinition classDefinition,
-            StringBuilder textDocumentBuilder, String indent, ICompilerProject currentProject, DefinitionAsText result,
-            IDefinition definitionToFind) {
-        insertMetaTagsIntoTextDocument(classDefinition, textDocumentBuilder, indent, currentProject, result,
-                definitionToFind);
+            StringBuilder textDocumentBuilder, String indent, ICompilerProject currentProject,
+            DefinitionAsText result) {
+        insertMetaTagsIntoTextDocument(classDefinition, textDocumentBuilder, indent, currentProject, result);
 
         textDocumentBuilder.append(indent);
         if (classDefinition.isPublic()) {
@@ -316,7 +383,7 @@ public class DefinitionTextUtils {
         }
         textDocumentBuilder.append(IASKeywordConstants.CLASS);
         textDocumentBuilder.append(" ");
-        appendDefinitionName(classDefinition, textDocumentBuilder, definitionToFind, result);
+        appendDefinitionName(classDefinition, textDocumentBuilder, result);
         String baseClassName = classDefinition.getBaseClassAsDisplayString();
         if (baseClassName != null && baseClassName.length() > 0 && !baseClassName.equals(IASLanguageConstants.Object)) {
             textDocumentBuilder.append(" ");
@@ -349,15 +416,15 @@ public class DefinitionTextUtils {
             if (childDefinition instanceof IAccessorDefinition) {
                 IAccessorDefinition functionDefinition = (IAccessorDefinition) childDefinition;
                 insertFunctionDefinitionIntoTextDocument(functionDefinition, textDocumentBuilder, childIndent,
-                        currentProject, result, definitionToFind);
+                        currentProject, result);
             } else if (childDefinition instanceof IFunctionDefinition) {
                 IFunctionDefinition functionDefinition = (IFunctionDefinition) childDefinition;
                 insertFunctionDefinitionIntoTextDocument(functionDefinition, textDocumentBuilder, childIndent,
-                        currentProject, result, definitionToFind);
+                        currentProject, result);
             } else if (childDefinition instanceof IVariableDefinition) {
                 IVariableDefinition variableDefinition = (IVariableDefinition) childDefinition;
                 insertVariableDefinitionIntoTextDocument(variableDefinition, textDocumentBuilder, childIndent,
-                        currentProject, result, definitionToFind);
+                        currentProject, result);
             }
         });
         indent = decreaseIndent(indent);
@@ -367,10 +434,9 @@ public class DefinitionTextUtils {
     }
 
     private static void insertInterfaceDefinitionIntoTextDocument(IInterfaceDefinition interfaceDefinition,
-            StringBuilder textDocumentBuilder, String indent, ICompilerProject currentProject, DefinitionAsText result,
-            IDefinition definitionToFind) {
-        insertMetaTagsIntoTextDocument(interfaceDefinition, textDocumentBuilder, indent, currentProject, result,
-                definitionToFind);
+            StringBuilder textDocumentBuilder, String indent, ICompilerProject currentProject,
+            DefinitionAsText result) {
+        insertMetaTagsIntoTextDocument(interfaceDefinition, textDocumentBuilder, indent, currentProject, result);
 
         textDocumentBuilder.append(indent);
         if (interfaceDefinition.isPublic()) {
@@ -382,7 +448,7 @@ public class DefinitionTextUtils {
         }
         textDocumentBuilder.append(IASKeywordConstants.INTERFACE);
         textDocumentBuilder.append(" ");
-        appendDefinitionName(interfaceDefinition, textDocumentBuilder, definitionToFind, result);
+        appendDefinitionName(interfaceDefinition, textDocumentBuilder, result);
         String[] interfaceNames = interfaceDefinition.getExtendedInterfacesAsDisplayStrings();
         if (interfaceNames.length > 0) {
             textDocumentBuilder.append(" ");
@@ -407,11 +473,11 @@ public class DefinitionTextUtils {
             if (childDefinition instanceof IAccessorDefinition) {
                 IAccessorDefinition functionDefinition = (IAccessorDefinition) childDefinition;
                 insertFunctionDefinitionIntoTextDocument(functionDefinition, textDocumentBuilder, childIndent,
-                        currentProject, result, definitionToFind);
+                        currentProject, result);
             } else if (childDefinition instanceof IFunctionDefinition) {
                 IFunctionDefinition functionDefinition = (IFunctionDefinition) childDefinition;
                 insertFunctionDefinitionIntoTextDocument(functionDefinition, textDocumentBuilder, childIndent,
-                        currentProject, result, definitionToFind);
+                        currentProject, result);
             }
         });
         indent = decreaseIndent(indent);
@@ -421,10 +487,9 @@ public class DefinitionTextUtils {
     }
 
     private static void insertFunctionDefinitionIntoTextDocument(IFunctionDefinition functionDefinition,
-            StringBuilder textDocumentBuilder, String indent, ICompilerProject currentProject, DefinitionAsText result,
-            IDefinition definitionToFind) {
-        insertMetaTagsIntoTextDocument(functionDefinition, textDocumentBuilder, indent, currentProject, result,
-                definitionToFind);
+            StringBuilder textDocumentBuilder, String indent, ICompilerProject currentProject,
+            DefinitionAsText result) {
+        insertMetaTagsIntoTextDocument(functionDefinition, textDocumentBuilder, indent, currentProject, result);
 
         textDocumentBuilder.append(indent);
         if (functionDefinition.isOverride()) {
@@ -468,17 +533,16 @@ public class DefinitionTextUtils {
             textDocumentBuilder.append(IASKeywordConstants.SET);
             textDocumentBuilder.append(" ");
         }
-        appendDefinitionName(functionDefinition, textDocumentBuilder, definitionToFind, result);
+        appendDefinitionName(functionDefinition, textDocumentBuilder, result);
         textDocumentBuilder.append(functionDefinitionToParametersAndReturnValue(functionDefinition, currentProject));
         textDocumentBuilder.append(";");
         textDocumentBuilder.append(NEW_LINE);
     }
 
     private static void insertVariableDefinitionIntoTextDocument(IVariableDefinition variableDefinition,
-            StringBuilder textDocumentBuilder, String indent, ICompilerProject currentProject, DefinitionAsText result,
-            IDefinition definitionToFind) {
-        insertMetaTagsIntoTextDocument(variableDefinition, textDocumentBuilder, indent, currentProject, result,
-                definitionToFind);
+            StringBuilder textDocumentBuilder, String indent, ICompilerProject currentProject,
+            DefinitionAsText result) {
+        insertMetaTagsIntoTextDocument(variableDefinition, textDocumentBuilder, indent, currentProject, result);
 
         textDocumentBuilder.append(indent);
         if (variableDefinition.isPublic()) {
@@ -509,7 +573,7 @@ public class DefinitionTextUtils {
             textDocumentBuilder.append(IASKeywordConstants.VAR);
         }
         textDocumentBuilder.append(" ");
-        appendDefinitionName(variableDefinition, textDocumentBuilder, definitionToFind, result);
+        appendDefinitionName(variableDefinition, textDocumentBuilder, result);
         textDocumentBuilder.append(":");
         textDocumentBuilder.append(getTypeAsDisplayString(variableDefinition));
         if (variableDefinition instanceof IConstantDefinition) {
@@ -526,7 +590,7 @@ public class DefinitionTextUtils {
     }
 
     private static void insertMetaTagsIntoTextDocument(IDefinition definition, StringBuilder textDocumentBuilder,
-            String indent, ICompilerProject currentProject, DefinitionAsText result, IDefinition definitionToFind) {
+            String indent, ICompilerProject currentProject, DefinitionAsText result) {
         IMetaTag[] metaTags = definition.getAllMetaTags();
         if (metaTags.length > 0) {
             for (int i = 0; i < metaTags.length; i++) {
@@ -539,14 +603,14 @@ public class DefinitionTextUtils {
                     continue;
                 }
                 textDocumentBuilder.append(indent);
-                insertMetaTagIntoTextDocument(metaTag, textDocumentBuilder, currentProject, result, definitionToFind);
+                insertMetaTagIntoTextDocument(metaTag, textDocumentBuilder, currentProject, result);
                 textDocumentBuilder.append(NEW_LINE);
             }
         }
     }
 
     private static void insertMetaTagIntoTextDocument(IMetaTag metaTag, StringBuilder textDocumentBuilder,
-            ICompilerProject currentProject, DefinitionAsText result, IDefinition definitionToFind) {
+            ICompilerProject currentProject, DefinitionAsText result) {
         textDocumentBuilder.append("[");
         textDocumentBuilder.append(metaTag.getTagName());
         IMetaTagAttribute[] attributes = metaTag.getAllAttributes();
@@ -813,16 +877,11 @@ public class DefinitionTextUtils {
     }
 
     private static void appendDefinitionName(IDefinition definition, StringBuilder textDocumentBuilder,
-            IDefinition definitionToFind, DefinitionAsText result) {
-        String name = definition.getBaseName();
-        if (definition.equals(definitionToFind)) {
-            String[] lines = textDocumentBuilder.toString().split(NEW_LINE);
-            result.startLine = lines.length - 1;
-            result.startColumn = lines[lines.length - 1].length();
-            result.endLine = result.startLine;
-            result.endColumn = result.startColumn + name.length();
-        }
-        textDocumentBuilder.append(name);
+            DefinitionAsText result) {
+        //the line and column are calculated later, and only for the
+        //definition that is requested
+        result.nameOffsets.putIfAbsent(definitionToNameKey(definition), textDocumentBuilder.length());
+        textDocumentBuilder.append(definition.getBaseName());
     }
 
     private static void appendNamespace(INamespaceDefinition ns, StringBuilder textDocumentBuilder) {
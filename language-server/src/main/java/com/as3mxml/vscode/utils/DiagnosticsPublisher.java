@@ -0,0 +1,72 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.PublishDiagnosticsParams;
+import org.eclipse.lsp4j.services.LanguageClient;
+
+/**
+ * Sends diagnostics to the client only if they are different than the
+ * diagnostics that were most recently sent for the same URI. A copy of the
+ * most recent diagnostics is kept for each URI that currently has
+ * problems. URIs that have no problems aren't tracked, so clearing a URI
+ * that has no problems doesn't send anything either.
+ */
+public class DiagnosticsPublisher {
+    private static Map<LanguageClient, DiagnosticsPublisher> instances = new WeakHashMap<>();
+
+    public static synchronized DiagnosticsPublisher getInstance(LanguageClient languageClient) {
+        DiagnosticsPublisher instance = instances.get(languageClient);
+        if (instance == null) {
+            instance = new DiagnosticsPublisher(languageClient);
+            instances.put(languageClient, instance);
+        }
+        return instance;
+    }
+
+    private DiagnosticsPublisher(LanguageClient languageClient) {
+        this.languageClient = languageClient;
+    }
+
+    private LanguageClient languageClient;
+    private Map<String, List<Diagnostic>> diagnosticsByURI = new HashMap<>();
+
+    public synchronized void publishDiagnostics(PublishDiagnosticsParams params) {
+        String uri = params.getUri();
+        List<Diagnostic> diagnostics = params.getDiagnostics();
+        if (diagnostics == null || diagnostics.isEmpty()) {
+            if (diagnosticsByURI.remove(uri) == null) {
+                //already cleared
+                return;
+            }
+        } else {
+            if (diagnostics.equals(diagnosticsByURI.get(uri))) {
+                //nothing has changed
+                return;
+            }
+            //the caller may modify its list after it has been published
+            diagnosticsByURI.put(uri, new ArrayList<>(diagnostics));
+        }
+        languageClient.publishDiagnostics(params);
+    }
+}
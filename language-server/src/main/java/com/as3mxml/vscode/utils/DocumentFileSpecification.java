@@ -0,0 +1,140 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.utils;
+
+import java.io.Reader;
+
+import org.apache.royale.compiler.filespecs.IFileSpecification;
+import org.apache.royale.utils.FilenameNormalization;
+
+/**
+ * An IFileSpecification for a document that is open in the editor. Reads
+ * directly from the text tracked by FileTracker without copying it, and uses
+ * the document's version as its last modified time so that a new version of
+ * the document is never considered to be older than a previous one.
+ */
+public class DocumentFileSpecification implements IFileSpecification {
+    public DocumentFileSpecification(String path, CharSequence text, long version) {
+        this.path = FilenameNormalization.normalize(path);
+        this.text = text;
+        this.version = version;
+    }
+
+    private String path;
+    private CharSequence text;
+    private long version;
+
+    public String getPath() {
+        return path;
+    }
+
+    public CharSequence getText() {
+        return text;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Reader createReader() {
+        return new CharSequenceReader(text);
+    }
+
+    public long getLastModified() {
+        return version;
+    }
+
+    public void setLastModified(long value) {
+        //the version is determined by the document, so ignore this
+    }
+
+    public boolean isOpenDocument() {
+        return true;
+    }
+
+    /**
+     * Similar to StringReader, but works with any CharSequence.
+     */
+    private static class CharSequenceReader extends Reader {
+        public CharSequenceReader(CharSequence text) {
+            this.text = text;
+        }
+
+        private CharSequence text;
+        private int index = 0;
+        private int mark = 0;
+
+        @Override
+        public int read() {
+            if (index >= text.length()) {
+                return -1;
+            }
+            return text.charAt(index++);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            int remaining = text.length() - index;
+            if (remaining <= 0) {
+                return -1;
+            }
+            if (length == 0) {
+                return 0;
+            }
+            int count = Math.min(length, remaining);
+            if (text instanceof String) {
+                ((String) text).getChars(index, index + count, buffer, offset);
+            } else {
+                for (int i = 0; i < count; i++) {
+                    buffer[offset + i] = text.charAt(index + i);
+                }
+            }
+            index += count;
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            int count = (int) Math.max(0, Math.min(n, text.length() - index));
+            index += count;
+            return count;
+        }
+
+        @Override
+        public boolean ready() {
+            return true;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public void mark(int readAheadLimit) {
+            mark = index;
+        }
+
+        @Override
+        public void reset() {
+            index = mark;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
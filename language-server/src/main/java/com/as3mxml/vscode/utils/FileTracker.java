@@ -22,20 +22,24 @@ import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
 import java.nio.file.Path;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.royale.compiler.filespecs.IFileSpecification;
 import org.apache.royale.compiler.workspaces.IWorkspace;
+import org.apache.royale.utils.FilenameNormalization;
 import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
 
 public class FileTracker {
-    private Map<Path, String> sourceByPath = new HashMap<>();
+    //open files may be read by other threads while they are being modified
+    private Map<Path, String> sourceByPath = new ConcurrentHashMap<>();
+    private Map<Path, Long> versionByPath = new ConcurrentHashMap<>();
+    private long lastVersion = 0;
     private LanguageServerFileSpecGetter fileSpecGetter;
 
     public FileTracker(IWorkspace compilerWorkspace) {
@@ -52,12 +56,36 @@ public class FileTracker {
 
     public void openFile(Path path, String text) {
         sourceByPath.put(path, text);
+        versionByPath.put(path, nextVersion());
     }
 
     public String closeFile(Path path) {
+        versionByPath.remove(path);
+        String normalizedPath = FilenameNormalization.normalize(path.toAbsolutePath().toString());
+        fileSpecGetter.releaseFileSpecification(normalizedPath);
         return sourceByPath.remove(path);
     }
 
+    /**
+     * Returns the version of an open file, which changes every time that the
+     * file is modified. Returns -1 if the file is not open.
+     */
+    public long getVersion(Path path) {
+        Long version = versionByPath.get(path);
+        if (version == null) {
+            return -1;
+        }
+        return version;
+    }
+
+    /**
+     * Returns the most recent version of any open file, which changes every
+     * time that an open file is modified.
+     */
+    public synchronized long getLastVersion() {
+        return lastVersion;
+    }
+
     public void changeFile(Path path, List<TextDocumentContentChangeEvent> contentChanges) {
         for (TextDocumentContentChangeEvent change : contentChanges) {
             if (change.getRange() == null) {
@@ -70,6 +98,9 @@ public class FileTracker {
                 System.err.println("Failed to apply changes to code intelligence from path: " + path);
             }
         }
+        if (sourceByPath.containsKey(path)) {
+            versionByPath.put(path, nextVersion());
+        }
     }
 
     public Reader getReader(Path path) {
@@ -120,6 +151,30 @@ public class FileTracker {
         return fileSpecGetter.getFileSpecification(filePath);
     }
 
+    /**
+     * Returns a file specification that the compiler will parse as if the file
+     * were open in an editor, but without adding the file to the open files.
+     * Returns null if the file can't be read.
+     */
+    public IFileSpecification getOpenDocumentFileSpecification(Path path) {
+        String text = getText(path);
+        if (text == null) {
+            return null;
+        }
+        String normalizedPath = FilenameNormalization.normalize(path.toAbsolutePath().toString());
+        return new DocumentFileSpecification(normalizedPath, text, nextVersion());
+    }
+
+    /**
+     * Versions are used as the last modified time of open files, so they are
+     * based on the clock, and they must always increase, even if the clock
+     * doesn't.
+     */
+    private synchronized long nextVersion() {
+        lastVersion = Math.max(System.currentTimeMillis(), lastVersion + 1);
+        return lastVersion;
+    }
+
     private String patch(String sourceText, TextDocumentContentChangeEvent change) {
         Range range = change.getRange();
         Position start = range.getStart();
@@ -0,0 +1,98 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.utils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.as3mxml.vscode.utils.CompilationUnitUtils.IncludeFileData;
+
+import org.apache.royale.compiler.units.ICompilationUnit;
+import org.apache.royale.compiler.workspaces.IWorkspace;
+
+/**
+ * Remembers the files included by each compilation unit. The includes are
+ * found again only if the unit's file, or one of the files that it includes,
+ * has been modified since the last time.
+ */
+public class IncludedFilesCache {
+    private static class UnitIncludes {
+        public Map<String, Long> lastModifiedByPath = new HashMap<>();
+        public Map<String, IncludeFileData> includes = new HashMap<>();
+    }
+
+    private Map<ICompilationUnit, UnitIncludes> includesByUnit = new IdentityHashMap<>();
+
+    /**
+     * Adds the files included by the unit to the result.
+     */
+    public synchronized void findIncludedFiles(ICompilationUnit unit, Map<String, IncludeFileData> result) {
+        if (unit == null) {
+            return;
+        }
+        IWorkspace workspace = unit.getProject().getWorkspace();
+        UnitIncludes unitIncludes = includesByUnit.get(unit);
+        if (unitIncludes == null || !isUpToDate(unitIncludes, workspace)) {
+            unitIncludes = new UnitIncludes();
+            CompilationUnitUtils.findIncludedFiles(unit, unitIncludes.includes);
+            String unitPath = unit.getAbsoluteFilename();
+            unitIncludes.lastModifiedByPath.put(unitPath, getLastModified(unitPath, workspace));
+            for (String includedPath : unitIncludes.includes.keySet()) {
+                unitIncludes.lastModifiedByPath.put(includedPath, getLastModified(includedPath, workspace));
+            }
+            includesByUnit.put(unit, unitIncludes);
+        }
+        for (Map.Entry<String, IncludeFileData> entry : unitIncludes.includes.entrySet()) {
+            IncludeFileData cachedData = entry.getValue();
+            IncludeFileData includeFileData = result.get(entry.getKey());
+            if (includeFileData == null) {
+                includeFileData = new IncludeFileData(cachedData.parentPath);
+                result.put(entry.getKey(), includeFileData);
+            }
+            includeFileData.getOffsetCues().addAll(cachedData.getOffsetCues());
+        }
+    }
+
+    /**
+     * Forgets the includes of any unit that isn't in the collection.
+     */
+    public synchronized void retainAll(Collection<ICompilationUnit> units) {
+        Set<ICompilationUnit> unitsToRetain = Collections.newSetFromMap(new IdentityHashMap<>());
+        unitsToRetain.addAll(units);
+        includesByUnit.keySet().retainAll(unitsToRetain);
+    }
+
+    public synchronized void clear() {
+        includesByUnit.clear();
+    }
+
+    private boolean isUpToDate(UnitIncludes unitIncludes, IWorkspace workspace) {
+        for (Map.Entry<String, Long> entry : unitIncludes.lastModifiedByPath.entrySet()) {
+            if (getLastModified(entry.getKey(), workspace) != entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long getLastModified(String path, IWorkspace workspace) {
+        return workspace.getFileSpecification(path).getLastModified();
+    }
+}
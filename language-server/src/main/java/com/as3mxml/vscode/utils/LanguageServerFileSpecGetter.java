@@ -17,21 +17,24 @@ package com.as3mxml.vscode.utils;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.royale.compiler.common.IFileSpecificationGetter;
 import org.apache.royale.compiler.constants.IASKeywordConstants;
 import org.apache.royale.compiler.filespecs.FileSpecification;
 import org.apache.royale.compiler.filespecs.IFileSpecification;
-import org.apache.royale.compiler.internal.filespecs.StringFileSpecification;
 import org.apache.royale.compiler.workspaces.IWorkspace;
+import org.apache.royale.utils.FilenameNormalization;
 
 /**
  * Returns instances of IFileSpecification to be used by the Apache Royale
  * compiler to get the contents of files. If a file is open, and it is being
  * edited (possibly with changes not saved to the file system), returns a
- * StringFileSpecification. StringFileSpecification stores the code in a String.
- * If a file is not open, and it's simply coming from the file system, returns a
- * FileSpecification. FileSpecification reads the actual file.
+ * DocumentFileSpecification. DocumentFileSpecification reads the code tracked
+ * by FileTracker, and the same instance is returned until the document's
+ * version changes. If a file is not open, and it's simply coming from the file
+ * system, returns a FileSpecification. FileSpecification reads the actual file.
  */
 public class LanguageServerFileSpecGetter implements IFileSpecificationGetter {
     private static final String PACKAGE_WITHOUT_BRACES = "package ";
@@ -44,6 +47,7 @@ public class LanguageServerFileSpecGetter implements IFileSpecificationGetter {
 
     private FileTracker fileTracker;
     private IWorkspace workspace;
+    private Map<String, DocumentFileSpecification> openFileSpecs = new ConcurrentHashMap<>();
 
     public IWorkspace getWorkspace() {
         return workspace;
@@ -55,16 +59,35 @@ public class LanguageServerFileSpecGetter implements IFileSpecificationGetter {
 
     public IFileSpecification getFileSpecification(String filePath) {
         Path path = Paths.get(filePath);
+        //callers may pass paths that aren't normalized, but the open file
+        //specifications are released by their normalized paths
+        String normalizedPath = FilenameNormalization.normalize(filePath);
         if (fileTracker.isOpen(path)) {
+            long version = fileTracker.getVersion(path);
+            DocumentFileSpecification fileSpec = openFileSpecs.get(normalizedPath);
+            if (fileSpec != null && fileSpec.getVersion() == version) {
+                //nothing has changed, so there's no need to create a new one
+                return fileSpec;
+            }
             String code = fileTracker.getText(path);
             if (filePath.endsWith(FILE_EXTENSION_AS)) {
                 code = fixPackageWithoutBraces(code);
             }
-            return new StringFileSpecification(filePath, code);
+            fileSpec = new DocumentFileSpecification(normalizedPath, code, version);
+            openFileSpecs.put(normalizedPath, fileSpec);
+            return fileSpec;
         }
+        openFileSpecs.remove(normalizedPath);
         return new FileSpecification(filePath);
     }
 
+    /**
+     * Called when a file is closed so that its text isn't kept in memory.
+     */
+    public void releaseFileSpecification(String filePath) {
+        openFileSpecs.remove(FilenameNormalization.normalize(filePath));
+    }
+
     /**
      * If the file only contains the package keyword followed by a space, the
      * compiler will return an IFileNode with no children.
@@ -0,0 +1,85 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.utils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.apache.royale.compiler.projects.ICompilerProject;
+
+/**
+ * Remembers the XML namespaces that may be used for each class in MXML, in
+ * order of preference. They depend only on the project's manifests and
+ * libraries, so the same namespaces are reused for every completion request.
+ * The prefixes declared by a document are applied later, for each request.
+ *
+ * <p>Each project has its own cache, which should be cleared when the
+ * project is deleted, or when its manifests or library paths change.</p>
+ */
+public class MXMLNamespaceCache {
+    private ICompilerProject project;
+
+    //the language namespace of the document may change which namespaces are
+    //preferred, so it's part of the key
+    private Map<String, Map<String, List<String>>> namespacesByLanguageNamespace = new HashMap<>();
+
+    /**
+     * Returns the preferred XML namespaces for the class. If they aren't
+     * cached, they're found by the supplier.
+     */
+    public List<String> getPreferredNamespaces(ICompilerProject project, String qualifiedName,
+            String languageNamespace, Supplier<List<String>> supplier) {
+        synchronized (this) {
+            if (this.project != project) {
+                //the project was replaced, so nothing can be reused
+                namespacesByLanguageNamespace.clear();
+                this.project = project;
+            }
+            Map<String, List<String>> namespacesByClass = namespacesByLanguageNamespace.get(languageNamespace);
+            if (namespacesByClass != null) {
+                List<String> namespaces = namespacesByClass.get(qualifiedName);
+                if (namespaces != null) {
+                    return namespaces;
+                }
+            }
+        }
+        List<String> namespaces = Collections.unmodifiableList(supplier.get());
+        synchronized (this) {
+            if (this.project != project) {
+                return namespaces;
+            }
+            Map<String, List<String>> namespacesByClass = namespacesByLanguageNamespace.get(languageNamespace);
+            if (namespacesByClass == null) {
+                namespacesByClass = new HashMap<>();
+                namespacesByLanguageNamespace.put(languageNamespace, namespacesByClass);
+            }
+            namespacesByClass.put(qualifiedName, namespaces);
+        }
+        return namespaces;
+    }
+
+    /**
+     * Should be called when the project is deleted, or when its manifests
+     * or library paths have changed.
+     */
+    public synchronized void clear() {
+        project = null;
+        namespacesByLanguageNamespace.clear();
+    }
+}
@@ -172,7 +172,7 @@ public class MXMLNamespaceUtils
         return prefix;
     }
 
-    private static boolean isPreferredNamespace(String tagNamespace, List<String> tagNamespaces, MXMLData mxmlData)
+    private static boolean isPreferredNamespace(String tagNamespace, List<String> tagNamespaces, String rootLanguageNamespace)
     {
         if (tagNamespace.equals(IMXMLLibraryConstants.MX) && tagNamespaces.contains(IMXMLLibraryConstants.SPARK))
         {
@@ -183,10 +183,8 @@ public class MXMLNamespaceUtils
         }
         if (tagNamespace.equals(IMXMLLanguageConstants.NAMESPACE_MXML_2006))
         {
-            IMXMLTagData rootTag = mxmlData.getRootTag();
-            if (rootTag != null)
+            if (rootLanguageNamespace != null)
             {
-                String rootLanguageNamespace = rootTag.getMXMLDialect().getLanguageNamespace();
                 if(!rootLanguageNamespace.equals(tagNamespace))
                 {
                     if(tagNamespaces.contains(IMXMLLibraryConstants.MX))
@@ -209,33 +207,32 @@ public class MXMLNamespaceUtils
         return true;
     }
 
-    public static MXMLNamespace getMXMLNamespaceForTypeDefinition(ITypeDefinition definition, MXMLData mxmlData, IRoyaleProject currentProject)
+    public static MXMLNamespace getMXMLNamespaceForTypeDefinition(ITypeDefinition definition, MXMLData mxmlData, IRoyaleProject currentProject, MXMLNamespaceCache namespaceCache)
     {
         //the prefix map may be null, if the file is empty
         PrefixMap prefixMap = mxmlData.getRootTagPrefixMap();
 
-        Collection<XMLName> tagNames = currentProject.getTagNamesForClass(definition.getQualifiedName());
-        List<String> xmlNamespaces = new ArrayList<>();
-        for (XMLName tagName : tagNames)
+        String rootLanguageNamespace = null;
+        IMXMLTagData rootTag = mxmlData.getRootTag();
+        if (rootTag != null)
         {
-            //creating a new collection with only the namespace strings for easy
-            //searching for other values
-            String tagNamespace = tagName.getXMLNamespace();
-            xmlNamespaces.add(tagNamespace);
+            rootLanguageNamespace = rootTag.getMXMLDialect().getLanguageNamespace();
         }
+        //the namespaces depend only on the project and the language
+        //namespace, so they're cached instead of finding them for every
+        //type on every request
+        String qualifiedName = definition.getQualifiedName();
+        String finalRootLanguageNamespace = rootLanguageNamespace;
+        List<String> preferredNamespaces = namespaceCache.getPreferredNamespaces(currentProject,
+                qualifiedName, rootLanguageNamespace, () -> {
+                    return getPreferredNamespacesForClass(qualifiedName, finalRootLanguageNamespace, currentProject);
+                });
 
         //1. try to use an existing xmlns with an uri
         if (prefixMap != null)
         {
-            for (String tagNamespace : xmlNamespaces)
+            for (String tagNamespace : preferredNamespaces)
             {
-                if (!isPreferredNamespace(tagNamespace, xmlNamespaces, mxmlData))
-                {
-                    //skip namespaces that we'd rather not use in the current
-                    //context. for example, we prefer spark over mx, and this
-                    //class may be defined in both namespaces.
-                    continue;
-                }
                 String[] uriPrefixes = prefixMap.getPrefixesForNamespace(tagNamespace);
                 if (uriPrefixes.length > 0)
                 {
@@ -263,7 +260,6 @@ public class MXMLNamespaceUtils
         if (packageName != null && packageName.startsWith(UNDERSCORE_UNDERSCORE_AS3_PACKAGE))
         {
             //anything in this package is in the language namespace
-            IMXMLTagData rootTag = mxmlData.getRootTag();
             //we'll use the file dialect, but if it's not available, this is the
             //default we should use
             String fxNamespace = IMXMLLanguageConstants.NAMESPACE_MXML_2009;
@@ -284,14 +280,8 @@ public class MXMLNamespaceUtils
         //we're searching again through the available namespaces. previously,
         //we looked for uris that were already used. now we want to find one
         //that hasn't been used yet
-        for (String tagNamespace : xmlNamespaces)
+        for (String tagNamespace : preferredNamespaces)
         {
-            if (!isPreferredNamespace(tagNamespace, xmlNamespaces, mxmlData))
-            {
-                //same as above, we should skip over certain namespaces when
-                //there's a better option available.
-                continue;
-            }
             String[] uriPrefixes = null;
             if (prefixMap != null)
             {
@@ -344,6 +334,32 @@ public class MXMLNamespaceUtils
         return new MXMLNamespace(prefix, packageNamespace);
     }
 
+    private static List<String> getPreferredNamespacesForClass(String qualifiedName, String rootLanguageNamespace, IRoyaleProject currentProject)
+    {
+        Collection<XMLName> tagNames = currentProject.getTagNamesForClass(qualifiedName);
+        List<String> xmlNamespaces = new ArrayList<>();
+        for (XMLName tagName : tagNames)
+        {
+            //creating a new collection with only the namespace strings for easy
+            //searching for other values
+            String tagNamespace = tagName.getXMLNamespace();
+            xmlNamespaces.add(tagNamespace);
+        }
+        List<String> result = new ArrayList<>();
+        for (String tagNamespace : xmlNamespaces)
+        {
+            if (!isPreferredNamespace(tagNamespace, xmlNamespaces, rootLanguageNamespace))
+            {
+                //skip namespaces that we'd rather not use in the current
+                //context. for example, we prefer spark over mx, and this
+                //class may be defined in both namespaces.
+                continue;
+            }
+            result.add(tagNamespace);
+        }
+        return result;
+    }
+
     private static String getPackageNameMXMLNamespaceURI(String packageName)
     {
         if (packageName != null && packageName.length() > 0)
@@ -0,0 +1,189 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.apache.royale.compiler.definitions.IClassDefinition;
+import org.apache.royale.compiler.definitions.IDefinition;
+import org.apache.royale.compiler.definitions.IInterfaceDefinition;
+import org.apache.royale.compiler.definitions.INamespaceDefinition;
+import org.apache.royale.compiler.definitions.ITypeDefinition;
+import org.apache.royale.compiler.projects.ICompilerProject;
+
+/**
+ * Remembers the members of a type that may be used for completion, after
+ * inherited members have been added and excluded members have been removed,
+ * so that they don't need to be found again for every member access.
+ *
+ * <p>A type's definition is replaced when its file is rebuilt, so its cached
+ * members are never used again. The members are found again if any of the
+ * type's base classes or interfaces has been replaced since they were
+ * cached.</p>
+ *
+ * <p>Each project has its own cache, which should be cleared when the project
+ * is deleted.</p>
+ */
+public class MemberCompletionCache {
+    private static final int MAX_TYPES = 256;
+    private static final int MAX_VARIANTS_PER_TYPE = 8;
+    private static final String KIND_MEMBERS = "members";
+    private static final String KIND_METADATA = "metadata";
+
+    /**
+     * A name declared by [Event] or [Style] metadata, and the definition that
+     * it resolves to, which may be null.
+     */
+    public static class MetadataMember {
+        public MetadataMember(String name, IDefinition definition, IClassDefinition owner) {
+            this.name = name;
+            this.definition = definition;
+            this.owner = owner;
+        }
+
+        public String name;
+        public IDefinition definition;
+        //the class where the metadata was declared
+        public IClassDefinition owner;
+    }
+
+    private static class TypeEntry {
+        public TypeEntry(Set<IDefinition> ancestry) {
+            this.ancestry = ancestry;
+        }
+
+        public Set<IDefinition> ancestry;
+        public Map<List<Object>, List<?>> valuesByKey = new LinkedHashMap<List<Object>, List<?>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, List<?>> eldest) {
+                return size() > MAX_VARIANTS_PER_TYPE;
+            }
+        };
+    }
+
+    private ICompilerProject project;
+    private Map<ITypeDefinition, TypeEntry> typeEntries = new LinkedHashMap<ITypeDefinition, TypeEntry>(16, 0.75f,
+            true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ITypeDefinition, TypeEntry> eldest) {
+            return size() > MAX_TYPES;
+        }
+    };
+
+    /**
+     * Returns the members of the type that are visible with the namespace
+     * set. If they aren't cached, they're found by the supplier.
+     */
+    public List<IDefinition> getMembers(ICompilerProject project, ITypeDefinition type,
+            Set<INamespaceDefinition> namespaceSet, boolean isStatic, boolean includeSuperStatics, boolean forMXML,
+            Supplier<List<IDefinition>> supplier) {
+        return get(project, type, Arrays.asList(KIND_MEMBERS, new HashSet<>(namespaceSet), isStatic, includeSuperStatics,
+                forMXML), supplier);
+    }
+
+    /**
+     * Returns the names declared by the type's metadata with the specified
+     * name, like [Event] or [Style]. If they aren't cached, they're found by
+     * the supplier.
+     */
+    public List<MetadataMember> getMetadataMembers(ICompilerProject project, ITypeDefinition type,
+            String metaTagName, Supplier<List<MetadataMember>> supplier) {
+        return get(project, type, Arrays.asList(KIND_METADATA, metaTagName), supplier);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> get(ICompilerProject project, ITypeDefinition type, List<Object> key,
+            Supplier<List<T>> supplier) {
+        if (type == null) {
+            return supplier.get();
+        }
+        Set<IDefinition> ancestry = resolveAncestry(project, type);
+        synchronized (this) {
+            if (this.project != project) {
+                //the project was replaced, so nothing can be reused
+                typeEntries.clear();
+                this.project = project;
+            }
+            TypeEntry entry = typeEntries.get(type);
+            if (entry != null && entry.ancestry.equals(ancestry)) {
+                List<T> values = (List<T>) entry.valuesByKey.get(key);
+                if (values != null) {
+                    return values;
+                }
+            }
+        }
+        //the lock isn't held while the members are found because that may
+        //take a while for types with many members
+        List<T> values = Collections.unmodifiableList(new ArrayList<>(supplier.get()));
+        synchronized (this) {
+            if (this.project != project) {
+                return values;
+            }
+            TypeEntry entry = typeEntries.get(type);
+            if (entry == null || !entry.ancestry.equals(ancestry)) {
+                entry = new TypeEntry(ancestry);
+                typeEntries.put(type, entry);
+            }
+            entry.valuesByKey.put(key, values);
+        }
+        return values;
+    }
+
+    /**
+     * Should be called when the project is deleted.
+     */
+    public synchronized void clear() {
+        project = null;
+        typeEntries.clear();
+    }
+
+    private Set<IDefinition> resolveAncestry(ICompilerProject project, ITypeDefinition type) {
+        Set<IDefinition> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (type instanceof IClassDefinition) {
+            IClassDefinition classDefinition = (IClassDefinition) type;
+            IClassDefinition[] classes = classDefinition.resolveAncestry(project);
+            if (classes != null) {
+                result.addAll(Arrays.asList(classes));
+            }
+            Set<IInterfaceDefinition> interfaces = classDefinition.resolveAllInterfaces(project);
+            if (interfaces != null) {
+                result.addAll(interfaces);
+            }
+        } else if (type instanceof IInterfaceDefinition) {
+            IInterfaceDefinition interfaceDefinition = (IInterfaceDefinition) type;
+            Iterator<IInterfaceDefinition> iterator = interfaceDefinition.interfaceIterator(project, true);
+            while (iterator.hasNext()) {
+                result.add(iterator.next());
+            }
+        }
+        result.add(type);
+        return result;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.utils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps folder paths to values so that all of the values associated with the
+ * folders that contain a particular path may be found by walking the path's
+ * name elements once, instead of calling Path.startsWith() for every folder.
+ * Matching follows the same rules as Path.startsWith().
+ */
+public class PathPrefixTrie<T> {
+    private static class Node<T> {
+        public Map<Path, Node<T>> children = new HashMap<>();
+        public List<T> values = new ArrayList<>();
+    }
+
+    private Map<Path, Node<T>> roots = new HashMap<>();
+
+    public void put(Path prefix, T value) {
+        Node<T> node = roots.get(prefix.getRoot());
+        if (node == null) {
+            node = new Node<>();
+            roots.put(prefix.getRoot(), node);
+        }
+        for (Path name : prefix) {
+            Node<T> child = node.children.get(name);
+            if (child == null) {
+                child = new Node<>();
+                node.children.put(name, child);
+            }
+            node = child;
+        }
+        if (!node.values.contains(value)) {
+            node.values.add(value);
+        }
+    }
+
+    /**
+     * Returns the values of every prefix that contains the path, ordered from
+     * the shortest prefix to the longest.
+     */
+    public List<T> findAll(Path path) {
+        List<T> result = new ArrayList<>();
+        Node<T> node = roots.get(path.getRoot());
+        if (node == null) {
+            return result;
+        }
+        result.addAll(node.values);
+        for (Path name : path) {
+            node = node.children.get(name);
+            if (node == null) {
+                break;
+            }
+            result.addAll(node.values);
+        }
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return roots.isEmpty();
+    }
+
+    public void clear() {
+        roots.clear();
+    }
+}
@@ -69,7 +69,7 @@ public class ProblemTracker
             publish.setUri(uri.toString());
             if (languageClient != null)
             {
-                languageClient.publishDiagnostics(publish);
+                DiagnosticsPublisher.getInstance(languageClient).publishDiagnostics(publish);
             }
         }
         staleFilesWithProblems.clear();
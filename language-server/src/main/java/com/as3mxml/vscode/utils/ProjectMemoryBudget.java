@@ -0,0 +1,131 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.utils;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.Collection;
+import java.util.function.Predicate;
+
+import com.as3mxml.vscode.project.ActionScriptProjectData;
+
+/**
+ * Decides when projects should be unloaded to keep the heap within a budget.
+ * The heap usage after the most recent garbage collection is compared to the
+ * budget, so garbage that hasn't been collected yet isn't counted. Only
+ * projects that have no open files, and that haven't been used recently, may
+ * be unloaded. The least recently used project is unloaded first.
+ */
+public class ProjectMemoryBudget {
+    private static final double DEFAULT_BUDGET_RATIO = 0.75;
+    private static final long BYTES_PER_MEGABYTE = 1024L * 1024L;
+    private static final long IDLE_TIME_MS = 5L * 60L * 1000L;
+
+    private volatile long budgetBytes = -1;
+    private long collectionCountAtUnload = -1;
+
+    /**
+     * Sets the budget in megabytes. If null, the budget is a percentage of the
+     * maximum heap size.
+     */
+    public void setBudgetMegabytes(Long value) {
+        if (value == null || value <= 0) {
+            budgetBytes = -1;
+            return;
+        }
+        budgetBytes = value * BYTES_PER_MEGABYTE;
+    }
+
+    public long getBudgetBytes() {
+        if (budgetBytes != -1) {
+            return budgetBytes;
+        }
+        return (long) (Runtime.getRuntime().maxMemory() * DEFAULT_BUDGET_RATIO);
+    }
+
+    public boolean isOverBudget() {
+        if (collectionCountAtUnload != -1 && getCollectionCount() <= collectionCountAtUnload) {
+            //the memory used by the most recently unloaded project may not
+            //have been collected yet, so it's too soon to measure again
+            return false;
+        }
+        return getUsedBytes() > getBudgetBytes();
+    }
+
+    /**
+     * Should be called after a project is unloaded.
+     */
+    public void projectUnloaded() {
+        collectionCountAtUnload = getCollectionCount();
+    }
+
+    /**
+     * Returns the least recently used project that may be unloaded, or null
+     * if no project may be unloaded right now.
+     */
+    public ActionScriptProjectData findProjectToUnload(Collection<ActionScriptProjectData> allProjectData,
+            Predicate<ActionScriptProjectData> hasOpenFiles) {
+        long idleSince = System.currentTimeMillis() - IDLE_TIME_MS;
+        ActionScriptProjectData result = null;
+        for (ActionScriptProjectData projectData : allProjectData) {
+            if (projectData.project == null || projectData.lastAccessTime > idleSince) {
+                continue;
+            }
+            if (result != null && result.lastAccessTime <= projectData.lastAccessTime) {
+                continue;
+            }
+            if (hasOpenFiles.test(projectData)) {
+                continue;
+            }
+            result = projectData;
+        }
+        return result;
+    }
+
+    private long getCollectionCount() {
+        long result = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            result += Math.max(0, collector.getCollectionCount());
+        }
+        return result;
+    }
+
+    private long getUsedBytes() {
+        long result = 0;
+        boolean hasCollectionUsage = false;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (!MemoryType.HEAP.equals(pool.getType())) {
+                continue;
+            }
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage == null) {
+                //this pool doesn't support it, so use the current usage
+                usage = pool.getUsage();
+            } else {
+                hasCollectionUsage = true;
+            }
+            result += usage.getUsed();
+        }
+        if (!hasCollectionUsage) {
+            Runtime runtime = Runtime.getRuntime();
+            return runtime.totalMemory() - runtime.freeMemory();
+        }
+        return result;
+    }
+}
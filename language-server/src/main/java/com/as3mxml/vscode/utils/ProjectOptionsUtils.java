@@ -0,0 +1,127 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.as3mxml.asconfigc.utils.OptionsUtils;
+import com.as3mxml.vscode.project.ProjectOptions;
+
+public class ProjectOptionsUtils {
+    /**
+     * Compiler options that may be applied to an existing project by
+     * configuring it again, without creating a new project.
+     */
+    private static final Set<String> RECONFIGURABLE_OPTIONS = new HashSet<>(Arrays.asList("source-path",
+            "compiler.source-path", "library-path", "compiler.library-path", "external-library-path",
+            "compiler.external-library-path", "define", "compiler.define", "include-sources"));
+
+    /**
+     * Determines if the differences between the old options and the new
+     * options may be applied to an existing project. If the options are
+     * equivalent, returns true too.
+     */
+    public static boolean canReconfigure(ProjectOptions oldOptions, ProjectOptions newOptions) {
+        if (!Objects.equals(oldOptions.type, newOptions.type) || !Objects.equals(oldOptions.config, newOptions.config)
+                || !Objects.equals(oldOptions.targets, newOptions.targets)) {
+            //these may require a different kind of project
+            return false;
+        }
+        return RECONFIGURABLE_OPTIONS.containsAll(findChangedOptionNames(oldOptions, newOptions));
+    }
+
+    /**
+     * Determines if the options would configure a project in exactly the
+     * same way.
+     */
+    public static boolean isEquivalent(ProjectOptions oldOptions, ProjectOptions newOptions) {
+        return Objects.equals(oldOptions.type, newOptions.type) && Objects.equals(oldOptions.config, newOptions.config)
+                && Objects.equals(oldOptions.targets, newOptions.targets)
+                && Arrays.equals(oldOptions.files, newOptions.files)
+                && findChangedOptionNames(oldOptions, newOptions).isEmpty();
+    }
+
+    /**
+     * Returns the names of the compiler options, including those in the
+     * additional options, whose values are different. Options that may be
+     * specified more than once are compared in order.
+     */
+    public static Set<String> findChangedOptionNames(ProjectOptions oldOptions, ProjectOptions newOptions) {
+        Map<String, List<String>> oldValues = getOptionValues(oldOptions);
+        Map<String, List<String>> newValues = getOptionValues(newOptions);
+        Set<String> result = new HashSet<>();
+        Set<String> names = new HashSet<>(oldValues.keySet());
+        names.addAll(newValues.keySet());
+        for (String name : names) {
+            if (!Objects.equals(oldValues.get(name), newValues.get(name))) {
+                result.add(name);
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, List<String>> getOptionValues(ProjectOptions options) {
+        List<String> combinedOptions = new ArrayList<>();
+        if (options.compilerOptions != null) {
+            combinedOptions.addAll(options.compilerOptions);
+        }
+        if (options.additionalOptions != null) {
+            combinedOptions.addAll(OptionsUtils.parseAdditionalOptions(options.additionalOptions));
+        }
+        Map<String, List<String>> result = new LinkedHashMap<>();
+        List<String> currentValues = null;
+        for (String option : combinedOptions) {
+            if (!option.startsWith("-") && !option.startsWith("+")) {
+                //an argument that follows the option's name
+                if (currentValues == null) {
+                    currentValues = getValues(result, "");
+                }
+                currentValues.add(option);
+                continue;
+            }
+            String name = option.replaceFirst("^[\\-+]+", "");
+            int valueIndex = name.indexOf('=');
+            String value = "";
+            if (valueIndex != -1) {
+                value = name.substring(valueIndex);
+                name = name.substring(0, valueIndex);
+            }
+            if (name.endsWith("+")) {
+                name = name.substring(0, name.length() - 1);
+                value = "+" + value;
+            }
+            currentValues = getValues(result, name);
+            currentValues.add(value);
+        }
+        return result;
+    }
+
+    private static List<String> getValues(Map<String, List<String>> valuesByName, String name) {
+        List<String> values = valuesByName.get(name);
+        if (values == null) {
+            values = new ArrayList<>();
+            valuesByName.put(name, values);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.as3mxml.vscode.project.ILspProject;
+
+import org.apache.royale.compiler.internal.targets.Target;
+import org.apache.royale.compiler.projects.ICompilerProject;
+import org.apache.royale.compiler.units.ICompilationUnit;
+import org.apache.royale.compiler.units.requests.IOutgoingDependenciesRequestResult;
+
+/**
+ * Remembers the compilation units that are reachable from a project's roots,
+ * in SWF order, so that they don't need to be found again every time that the
+ * project is checked for problems. For library projects, the roots from the
+ * SWC target are remembered too, so that a new target isn't created for every
+ * check.
+ *
+ * <p>When a compilation unit is rebuilt, the result of its outgoing
+ * dependencies request is replaced. The reachable units are found again only
+ * if the rebuilt unit's dependencies have changed, or if the roots have
+ * changed.</p>
+ *
+ * <p>Each project has its own cache, which should be cleared when the
+ * project is deleted, or when its target settings change.</p>
+ */
+public class ReachableUnitsCache {
+    private static class UnitEntry {
+        public UnitEntry(IOutgoingDependenciesRequestResult outgoingDependencies, Set<ICompilationUnit> dependencies) {
+            this.outgoingDependencies = outgoingDependencies;
+            this.dependencies = dependencies;
+        }
+
+        public IOutgoingDependenciesRequestResult outgoingDependencies;
+        public Set<ICompilationUnit> dependencies;
+    }
+
+    private ICompilerProject project;
+    private Set<ICompilationUnit> libraryProjectUnits;
+    private Set<ICompilationUnit> libraryRoots;
+    private Set<ICompilationUnit> roots;
+    private List<ICompilationUnit> reachableUnits;
+    private Map<ICompilationUnit, UnitEntry> unitEntries = new IdentityHashMap<>();
+
+    /**
+     * Returns the rooted compilation units of the library project's SWC
+     * target. A new target is created only if compilation units have been
+     * added to the project or removed from it.
+     */
+    public synchronized Set<ICompilationUnit> getLibraryRoots(ILspProject libraryProject)
+            throws InterruptedException {
+        setProject(libraryProject);
+        Set<ICompilationUnit> projectUnits = newIdentitySet(project.getCompilationUnits());
+        if (libraryRoots == null || !projectUnits.equals(libraryProjectUnits)) {
+            Target target = (Target) libraryProject.createSWCTarget(libraryProject.getTargetSettings(), null);
+            libraryRoots = Collections.unmodifiableSet(newIdentitySet(target.getRootedCompilationUnits().getUnits()));
+            libraryProjectUnits = projectUnits;
+        }
+        return libraryRoots;
+    }
+
+    /**
+     * Returns the compilation units that are reachable from the roots, in
+     * SWF order.
+     */
+    public synchronized List<ICompilationUnit> getReachableCompilationUnitsInSWFOrder(ICompilerProject newProject,
+            Collection<ICompilationUnit> newRoots) throws InterruptedException {
+        setProject(newProject);
+        Set<ICompilationUnit> newRootsSet = newIdentitySet(newRoots);
+        if (reachableUnits == null || !newRootsSet.equals(roots) || hasDependencyChanges()) {
+            //there shouldn't be any concurrent modification exceptions when
+            //looping over the reachable units, but to be safe, they're copied
+            //to a new collection
+            reachableUnits = Collections.unmodifiableList(
+                    new ArrayList<>(project.getReachableCompilationUnitsInSWFOrder(newRootsSet)));
+            roots = newRootsSet;
+            unitEntries.clear();
+            for (ICompilationUnit unit : reachableUnits) {
+                if (unit == null) {
+                    continue;
+                }
+                //the dependencies were already found, so this is fast
+                unitEntries.put(unit, new UnitEntry(unit.getOutgoingDependenciesRequest().get(),
+                        newIdentitySet(project.getDirectDependencies(unit))));
+            }
+        }
+        return reachableUnits;
+    }
+
+    /**
+     * Should be called when the project is deleted, or when its target
+     * settings have changed.
+     */
+    public synchronized void clear() {
+        project = null;
+        libraryProjectUnits = null;
+        libraryRoots = null;
+        roots = null;
+        reachableUnits = null;
+        unitEntries.clear();
+    }
+
+    private void setProject(ICompilerProject newProject) {
+        if (project != newProject) {
+            //the project was replaced, so nothing can be reused
+            clear();
+            project = newProject;
+        }
+    }
+
+    private boolean hasDependencyChanges() throws InterruptedException {
+        for (Map.Entry<ICompilationUnit, UnitEntry> mapEntry : unitEntries.entrySet()) {
+            ICompilationUnit unit = mapEntry.getKey();
+            UnitEntry entry = mapEntry.getValue();
+            if (unit.getProject() == null) {
+                //the unit was removed from the project
+                return true;
+            }
+            //if the unit hasn't been rebuilt, this returns the same result
+            IOutgoingDependenciesRequestResult outgoingDependencies = unit.getOutgoingDependenciesRequest().get();
+            if (outgoingDependencies == entry.outgoingDependencies) {
+                continue;
+            }
+            if (!entry.dependencies.equals(newIdentitySet(project.getDirectDependencies(unit)))) {
+                return true;
+            }
+            //it was rebuilt, but its dependencies are the same
+            entry.outgoingDependencies = outgoingDependencies;
+        }
+        return false;
+    }
+
+    private Set<ICompilationUnit> newIdentitySet(Collection<ICompilationUnit> units) {
+        Set<ICompilationUnit> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        result.addAll(units);
+        return result;
+    }
+}
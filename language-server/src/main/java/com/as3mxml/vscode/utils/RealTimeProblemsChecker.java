@@ -19,6 +19,10 @@ import java.net.URI;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import com.as3mxml.vscode.project.ILspProject;
@@ -43,108 +47,195 @@ import org.eclipse.lsp4j.services.LanguageClient;
 
 public class RealTimeProblemsChecker implements Runnable
 {
-	public RealTimeProblemsChecker(LanguageClient languageClient, CompilerProblemFilter filter)
+	//the compiler runs the requests on its own threads, so this limits how
+	//many files may be checked at the same time
+	private static final int MAX_ACTIVE_UNITS = 4;
+
+	//open files that depend on an edited file are checked after the edits
+	//have stopped for a short time
+	private static final long DEPENDENT_DELAY_MS = 500;
+
+	public RealTimeProblemsChecker(LanguageClient languageClient, CompilerProblemFilter filter, FileTracker fileTracker,
+			ActionScriptProjectManager actionScriptProjectManager)
 	{
 		this.languageClient = languageClient;
 		this.compilerProblemFilter = filter;
+		this.fileTracker = fileTracker;
+		this.actionScriptProjectManager = actionScriptProjectManager;
 	}
 
 	public CompilerProblemFilter compilerProblemFilter;
 	public LanguageClient languageClient;
+	private FileTracker fileTracker;
+	private ActionScriptProjectManager actionScriptProjectManager;
+
+	private class UnitState
+	{
+		public UnitState(ICompilationUnit compilationUnit, IFileSpecification fileSpec, ActionScriptProjectData projectData)
+		{
+			this.compilationUnit = compilationUnit;
+			this.fileSpec = fileSpec;
+			this.projectData = projectData;
+		}
+
+		public ICompilationUnit compilationUnit;
+		public IFileSpecification fileSpec;
+		public ActionScriptProjectData projectData;
+
+		//a change that arrived while the unit was being checked, which will be
+		//passed to workspace.fileChanged() when the check is done
+		public IFileSpecification pendingFileSpec;
+
+		//true if the unit wasn't edited, but it depends on a unit that was
+		public boolean dependent = false;
+		public long dependentStartTime = 0;
+
+		public IRequest<ISyntaxTreeRequestResult, ICompilationUnit> syntaxTreeRequest;
+		public IRequest<IFileScopeRequestResult, ICompilationUnit> fileScopeRequest;
+		public IRequest<IOutgoingDependenciesRequestResult, ICompilationUnit> outgoingDepsRequest;
+		public IRequest<IABCBytesRequestResult, ICompilationUnit> abcBytesRequest;
+
+		public boolean isActive()
+		{
+			return syntaxTreeRequest != null;
+		}
+
+		public boolean isDone()
+		{
+			return syntaxTreeRequest.isDone()
+					&& fileScopeRequest.isDone()
+					&& outgoingDepsRequest.isDone()
+					&& abcBytesRequest.isDone();
+		}
 
-	private ActionScriptProjectData pendingProjectData;
-	private IFileSpecification pendingFileSpec;
-	private ICompilationUnit pendingCompilationUnit;
+		public void activate()
+		{
+			applyPending();
+			syntaxTreeRequest = compilationUnit.getSyntaxTreeRequest();
+			fileScopeRequest = compilationUnit.getFileScopeRequest();
+			outgoingDepsRequest = compilationUnit.getOutgoingDependenciesRequest();
+			abcBytesRequest = compilationUnit.getABCBytesRequest();
+		}
+
+		public void deactivate()
+		{
+			syntaxTreeRequest = null;
+			fileScopeRequest = null;
+			outgoingDepsRequest = null;
+			abcBytesRequest = null;
+		}
+
+		public void applyPending()
+		{
+			if(pendingFileSpec == null)
+			{
+				return;
+			}
+			fileSpec = pendingFileSpec;
+			pendingFileSpec = null;
+			IWorkspace workspace = projectData.project.getWorkspace();
+			workspace.fileChanged(fileSpec);
+			actionScriptProjectManager.didChangeSourceFile(fileSpec.getPath());
+		}
+	}
 
-	private ActionScriptProjectData projectData;
-	private IFileSpecification fileSpec;
-	private ICompilationUnit compilationUnit;
+	//units are checked in the order that they were first changed
+	private Map<ICompilationUnit, UnitState> unitStates = new LinkedHashMap<>();
 	
-	public synchronized IFileSpecification getFileSpecification()
+	/**
+	 * Returns the file specification of the file at the specified path, if
+	 * it is currently being checked. Otherwise, returns null.
+	 */
+	public synchronized IFileSpecification getFileSpecification(String path)
 	{
-		return fileSpec;
+		UnitState state = findUnitState(path);
+		if(state == null)
+		{
+			return null;
+		}
+		return state.fileSpec;
 	}
 
+	/**
+	 * Replaces the file specification of a file that is currently being
+	 * checked. The change is passed to the workspace after the current check
+	 * is done, and the file is checked again.
+	 */
 	public synchronized void setFileSpecification(IFileSpecification newFileSpec)
 	{
-		pendingProjectData = projectData;
-		pendingCompilationUnit = compilationUnit;
-		pendingFileSpec = newFileSpec;
+		UnitState state = findUnitState(newFileSpec.getPath());
+		if(state == null)
+		{
+			return;
+		}
+		state.pendingFileSpec = newFileSpec;
+		state.dependent = false;
 	}
 
 	public synchronized void setCompilationUnit(ICompilationUnit compilationUnit, IFileSpecification fileSpec, ActionScriptProjectData projectData)
 	{
-		if(this.compilationUnit != null && this.compilationUnit != compilationUnit)
+		UnitState state = unitStates.get(compilationUnit);
+		if(state == null)
 		{
-			updateNow();
-			pendingProjectData = projectData;
-			pendingCompilationUnit = compilationUnit;
-			pendingFileSpec = fileSpec;
+			unitStates.put(compilationUnit, new UnitState(compilationUnit, fileSpec, projectData));
 			return;
 		}
-		this.projectData = projectData;
-		this.compilationUnit = compilationUnit;
-		this.fileSpec = fileSpec;
-		pendingProjectData = null;
-		pendingCompilationUnit = null;
-		pendingFileSpec = null;
-		syntaxTreeRequest = compilationUnit.getSyntaxTreeRequest();
-		fileScopeRequest = compilationUnit.getFileScopeRequest();
-		outgoingDepsRequest = compilationUnit.getOutgoingDependenciesRequest();
-		abcBytesRequest = compilationUnit.getABCBytesRequest();
+		//the change was already passed to workspace.fileChanged(), so any
+		//requests that were started earlier are out of date
+		state.fileSpec = fileSpec;
+		state.projectData = projectData;
+		state.pendingFileSpec = null;
+		state.dependent = false;
+		state.deactivate();
 	}
 
 	public synchronized void clear()
 	{
-		projectData = null;
-		compilationUnit = null;
-		fileSpec = null;
-		pendingProjectData = null;
-		pendingCompilationUnit = null;
-		pendingFileSpec = null;
+		unitStates.clear();
 	}
 
-	public synchronized void updateNow()
+	public void updateNow()
 	{
-		applyPending();
-		if(compilationUnit == null)
-		{
-			return;
-		}
-		if(syntaxTreeRequest == null)
-		{
-			syntaxTreeRequest = compilationUnit.getSyntaxTreeRequest();
-		}
-		if(fileScopeRequest == null)
-		{
-			fileScopeRequest = compilationUnit.getFileScopeRequest();
-		}
-		if(outgoingDepsRequest == null)
-		{
-			outgoingDepsRequest = compilationUnit.getOutgoingDependenciesRequest();
-		}
-		if(abcBytesRequest == null)
+		List<IRequest<?, ICompilationUnit>> requests = new ArrayList<>();
+		synchronized(this)
 		{
-			abcBytesRequest = compilationUnit.getABCBytesRequest();
+			for(UnitState state : unitStates.values())
+			{
+				if(state.isActive())
+				{
+					requests.add(state.syntaxTreeRequest);
+					requests.add(state.fileScopeRequest);
+					requests.add(state.outgoingDepsRequest);
+					requests.add(state.abcBytesRequest);
+				}
+			}
 		}
+		//wait for the active units without holding the lock, so that other
+		//files may be changed in the meantime
 		try
 		{
-			syntaxTreeRequest.get();
-			fileScopeRequest.get();
-			outgoingDepsRequest.get();
-			abcBytesRequest.get();
+			for(IRequest<?, ICompilationUnit> request : requests)
+			{
+				request.get();
+			}
 		}
 		catch(InterruptedException e) {}
+		synchronized(this)
+		{
+			for(UnitState state : unitStates.values())
+			{
+				if(state.pendingFileSpec != null)
+				{
+					state.applyPending();
+					state.deactivate();
+				}
+			}
+		}
 	}
 
-	private IRequest<ISyntaxTreeRequestResult, ICompilationUnit> syntaxTreeRequest;
-	private IRequest<IFileScopeRequestResult, ICompilationUnit> fileScopeRequest;
-	private IRequest<IOutgoingDependenciesRequestResult, ICompilationUnit> outgoingDepsRequest;
-	private IRequest<IABCBytesRequestResult, ICompilationUnit> abcBytesRequest;
-
 	private synchronized long getWaitTime()
 	{
-		if(compilationUnit != null)
+		if(!unitStates.isEmpty())
 		{
 			return 100;
 		}
@@ -171,95 +262,132 @@ public class RealTimeProblemsChecker implements Runnable
 		}
 	}
 
-	private synchronized void checkForProblems()
+	private synchronized UnitState findUnitState(String path)
 	{
-		if (compilationUnit == null)
-		{
-			return;
-		}
-		if (compilationUnit.getProject() == null)
-		{
-			//this compilation unit is no longer valid
-			clear();
-			return;
-		}
-		if (syntaxTreeRequest == null)
-		{
-			syntaxTreeRequest = compilationUnit.getSyntaxTreeRequest();
-		}
-		if (fileScopeRequest == null)
-		{
-			fileScopeRequest = compilationUnit.getFileScopeRequest();
-		}
-		if (outgoingDepsRequest == null)
+		for(UnitState state : unitStates.values())
 		{
-			outgoingDepsRequest = compilationUnit.getOutgoingDependenciesRequest();
+			if(state.fileSpec.getPath().equals(path))
+			{
+				return state;
+			}
 		}
-		if (abcBytesRequest == null)
+		return null;
+	}
+
+	private synchronized void checkForProblems()
+	{
+		boolean hasEditedUnits = false;
+		for(UnitState state : unitStates.values())
 		{
-			abcBytesRequest = compilationUnit.getABCBytesRequest();
+			if(!state.dependent)
+			{
+				hasEditedUnits = true;
+				break;
+			}
 		}
-		if(syntaxTreeRequest.isDone()
-				&& fileScopeRequest.isDone()
-				&& outgoingDepsRequest.isDone()
-				&& abcBytesRequest.isDone())
+		long now = System.currentTimeMillis();
+		List<UnitState> checkedEditedUnits = new ArrayList<>();
+		int activeCount = 0;
+		Iterator<UnitState> iterator = unitStates.values().iterator();
+		while(iterator.hasNext())
 		{
-			publishDiagnostics();
-			syntaxTreeRequest = null;
-			fileScopeRequest = null;
-			outgoingDepsRequest = null;
-			abcBytesRequest = null;
-			if(pendingCompilationUnit != null)
+			UnitState state = iterator.next();
+			if (state.compilationUnit.getProject() == null)
+			{
+				//this compilation unit is no longer valid
+				iterator.remove();
+				continue;
+			}
+			if(!state.isActive())
+			{
+				if(activeCount >= MAX_ACTIVE_UNITS)
+				{
+					continue;
+				}
+				if(state.dependent && (hasEditedUnits || now < state.dependentStartTime))
+				{
+					//edited units are checked first
+					continue;
+				}
+				state.activate();
+			}
+			if(!state.isDone())
 			{
-				applyPending();
+				activeCount++;
+				continue;
+			}
+			publishDiagnostics(state);
+			state.deactivate();
+			if(!state.dependent)
+			{
+				checkedEditedUnits.add(state);
 			}
-			else
+			if(state.pendingFileSpec == null)
 			{
-				clear();
+				iterator.remove();
 			}
 		}
+		for(UnitState state : checkedEditedUnits)
+		{
+			addDependents(state);
+		}
 	}
 
-	private synchronized void applyPending()
+	private synchronized void addDependents(UnitState editedState)
 	{
-		if(pendingCompilationUnit == null)
+		ILspProject project = editedState.projectData.project;
+		if(project == null)
 		{
 			return;
 		}
-
-		if(pendingCompilationUnit == compilationUnit)
+		long dependentStartTime = System.currentTimeMillis() + DEPENDENT_DELAY_MS;
+		for(ICompilationUnit dependent : project.getDirectDependents(editedState.compilationUnit))
 		{
-			IWorkspace workspace = projectData.project.getWorkspace();
-			workspace.fileChanged(pendingFileSpec);
+			if(dependent == editedState.compilationUnit)
+			{
+				continue;
+			}
+			String absoluteFilename = dependent.getAbsoluteFilename();
+			if(absoluteFilename == null || !fileTracker.isOpen(Paths.get(absoluteFilename)))
+			{
+				//only files that are open in editors are checked in real time
+				continue;
+			}
+			UnitState state = unitStates.get(dependent);
+			if(state == null)
+			{
+				IFileSpecification fileSpec = fileTracker.getFileSpecification(absoluteFilename);
+				state = new UnitState(dependent, fileSpec, editedState.projectData);
+				state.dependent = true;
+				unitStates.put(dependent, state);
+			}
+			else if(!state.dependent)
+			{
+				//it was edited too, so it will be checked anyway
+				continue;
+			}
+			else if(state.isActive())
+			{
+				//a check that started before this edit may be out of date
+				state.deactivate();
+			}
+			//if the edits continue, wait for them to stop
+			state.dependentStartTime = dependentStartTime;
 		}
-
-		compilationUnit = pendingCompilationUnit;
-		fileSpec = pendingFileSpec;
-		projectData = pendingProjectData;
-		pendingCompilationUnit = null;
-		pendingFileSpec = null;
-		pendingProjectData = null;
-
-		syntaxTreeRequest = null;
-		fileScopeRequest = null;
-		outgoingDepsRequest = null;
-		abcBytesRequest = null;
 	}
 
-	private synchronized void publishDiagnostics()
+	private synchronized void publishDiagnostics(UnitState state)
 	{
-		if(compilationUnit == null)
-		{
-			return;
-		}
+		ICompilationUnit compilationUnit = state.compilationUnit;
+		ActionScriptProjectData projectData = state.projectData;
 		ArrayList<Diagnostic> diagnostics = new ArrayList<>();
 		ArrayList<ICompilerProblem> problems = new ArrayList<>();
         try
         {
-			Collections.addAll(problems, syntaxTreeRequest.get().getProblems());
-			Collections.addAll(problems, fileScopeRequest.get().getProblems());
-			Collections.addAll(problems, outgoingDepsRequest.get().getProblems());
-			ICompilerProblem[] probs = abcBytesRequest.get().getProblems();
+			Collections.addAll(problems, state.syntaxTreeRequest.get().getProblems());
+			Collections.addAll(problems, state.fileScopeRequest.get().getProblems());
+			Collections.addAll(problems, state.outgoingDepsRequest.get().getProblems());
+			ICompilerProblem[] probs = state.abcBytesRequest.get().getProblems();
 			for (ICompilerProblem prob : probs)
 			{
 				if (!(prob instanceof InternalCompilerProblem2))
@@ -270,7 +398,7 @@ public class RealTimeProblemsChecker implements Runnable
 			
 			ILspProject project = projectData.project;
 			Set<String> requiredImports = project.getQNamesOfDependencies(compilationUnit);
-			IASNode ast = syntaxTreeRequest.get().getAST();
+			IASNode ast = state.syntaxTreeRequest.get().getAST();
 			ASTUtils.findUnusedImportProblems(ast, requiredImports, problems);
 			ASTUtils.findDisabledConfigConditionBlockProblems(ast, problems);
         }
@@ -301,6 +429,6 @@ public class RealTimeProblemsChecker implements Runnable
         PublishDiagnosticsParams publish = new PublishDiagnosticsParams();
         publish.setDiagnostics(diagnostics);
 		publish.setUri(uri.toString());
-		languageClient.publishDiagnostics(publish);
+		DiagnosticsPublisher.getInstance(languageClient).publishDiagnostics(publish);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.utils;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.royale.compiler.projects.ICompilerProject;
+import org.apache.royale.compiler.tree.as.IASNode;
+
+/**
+ * Remembers the results of requests that are often repeated without any
+ * changes in between, like hover, when the mouse moves over the same
+ * identifier. A result may be keyed by a range in a document, which includes
+ * the versions of the open files, or by the definition that it describes.
+ * Definitions are compared by identity, and they're replaced when their files
+ * are rebuilt, so a changed definition never matches an old result.
+ * Results created by a different project are ignored, and only the most
+ * recently used results are kept.
+ */
+public class RequestResultCache<T> {
+    private static class CacheEntry<T> {
+        public CacheEntry(ICompilerProject project, T value) {
+            this.project = project;
+            this.value = value;
+        }
+
+        public ICompilerProject project;
+        public T value;
+    }
+
+    public RequestResultCache(int maxEntries) {
+        entries = new LinkedHashMap<Object, CacheEntry<T>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, CacheEntry<T>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    private Map<Object, CacheEntry<T>> entries;
+
+    /**
+     * Creates a key for the range of a node in a document. Any change to an
+     * open file creates a different key.
+     */
+    public static Object createRangeKey(Path path, IASNode node, FileTracker fileTracker) {
+        return Arrays.asList(path.toString(), fileTracker.getVersion(path), fileTracker.getLastVersion(),
+                node.getAbsoluteStart(), node.getAbsoluteEnd());
+    }
+
+    public synchronized T get(Object key, ICompilerProject project) {
+        CacheEntry<T> entry = entries.get(key);
+        if (entry == null || entry.project != project) {
+            return null;
+        }
+        return entry.value;
+    }
+
+    public synchronized void put(Object key, ICompilerProject project, T value) {
+        entries.put(key, new CacheEntry<>(project, value));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.utils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the configuration variables that were parsed from an SDK's
+ * configuration files, like flex-config.xml or royale-config.xml, so that
+ * each project that uses the same SDK doesn't need to parse the same XML
+ * again. Entries are keyed by the caller, and they are discarded when one of
+ * the configuration files has been modified.
+ */
+public class SDKConfigurationCache {
+    private static final SDKConfigurationCache instance = new SDKConfigurationCache();
+
+    public static SDKConfigurationCache getInstance() {
+        return instance;
+    }
+
+    public static class CachedValue {
+        public CachedValue(List<String> args, String source, int line, String context) {
+            this.args = new ArrayList<>(args);
+            this.source = source;
+            this.line = line;
+            this.context = context;
+        }
+
+        public List<String> args;
+        public String source;
+        public int line;
+        public String context;
+    }
+
+    private static class CacheEntry {
+        public Map<String, Long> lastModifiedByPath = new HashMap<>();
+        public Map<String, List<CachedValue>> valuesByVar;
+    }
+
+    private Map<String, CacheEntry> entries = new HashMap<>();
+
+    private SDKConfigurationCache() {
+    }
+
+    /**
+     * Returns the values of each configuration variable that was set by the
+     * configuration files, or null if they were never cached or if one of
+     * the files has been modified since.
+     */
+    public synchronized Map<String, List<CachedValue>> get(String key) {
+        CacheEntry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        for (Map.Entry<String, Long> lastModifiedEntry : entry.lastModifiedByPath.entrySet()) {
+            if (new File(lastModifiedEntry.getKey()).lastModified() != lastModifiedEntry.getValue()) {
+                entries.remove(key);
+                return null;
+            }
+        }
+        return entry.valuesByVar;
+    }
+
+    public synchronized void put(String key, Collection<String> configFilePaths,
+            Map<String, List<CachedValue>> valuesByVar) {
+        CacheEntry entry = new CacheEntry();
+        for (String configFilePath : configFilePaths) {
+            entry.lastModifiedByPath.put(configFilePath, new File(configFilePath).lastModified());
+        }
+        entry.valuesByVar = new LinkedHashMap<>(valuesByVar);
+        entries.put(key, entry);
+    }
+}
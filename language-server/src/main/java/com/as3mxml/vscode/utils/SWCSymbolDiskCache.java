@@ -0,0 +1,506 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import com.google.common.net.UrlEscapers;
+
+import org.apache.royale.compiler.definitions.IDefinition;
+import org.apache.royale.compiler.internal.scopes.ASProjectScope.DefinitionPromise;
+import org.apache.royale.compiler.units.ICompilationUnit;
+import org.apache.royale.compiler.units.ICompilationUnit.UnitType;
+import org.apache.royale.compiler.workspaces.IWorkspace;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.SymbolKind;
+
+/**
+ * Stores the public definitions of each SWC file used by a project on disk,
+ * so that a warm start of the language server can answer workspace symbol
+ * queries before the compiler has finished loading the project's libraries.
+ * An entry is used only if the SWC's size and last modified time still match
+ * the file. Its CRC32 checksum is compared once per session too, but reading
+ * the whole SWC may be slow, so that happens in the background when the SWCs
+ * of a project are updated, and entries are trusted until then.
+ */
+public class SWCSymbolDiskCache {
+    private static final int MAGIC = 0x41534d53;
+    private static final int FORMAT_VERSION = 1;
+    private static final String CACHE_FOLDER_NAME = "as3mxml";
+    private static final String CACHE_FILE_NAME = "swc-symbols.bin";
+    private static final String NO_PACKAGE = "No Package";
+
+    public static class CachedSymbol {
+        public CachedSymbol(String swcPath, String packageName, String name, SymbolKind kind, boolean deprecated) {
+            this.swcPath = swcPath;
+            this.packageName = packageName;
+            this.name = name;
+            this.kind = kind;
+            this.deprecated = deprecated;
+        }
+
+        public String swcPath;
+        public String packageName;
+        public String name;
+        public SymbolKind kind;
+        public boolean deprecated;
+
+        public String getQualifiedName() {
+            if (packageName.length() == 0) {
+                return name;
+            }
+            return packageName + "." + name;
+        }
+    }
+
+    private static class SWCEntry {
+        public long size;
+        public long lastModified;
+        public long checksum;
+        public boolean verified;
+        public List<CachedSymbol> symbols;
+    }
+
+    public SWCSymbolDiskCache() {
+        this(getDefaultCacheFile());
+    }
+
+    public SWCSymbolDiskCache(Path cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    private Path cacheFile;
+    private boolean loaded = false;
+    private Map<String, SWCEntry> entries = new HashMap<>();
+    private Map<String, List<String>> swcPathsByProject = new HashMap<>();
+
+    /**
+     * Returns true if the cache has up-to-date symbols for the SWC. The
+     * checksum is compared the first time that the SWC is checked in each
+     * session, so this may be slow. The cache isn't locked while the SWC is
+     * read.
+     */
+    public boolean isValid(String swcPath) {
+        SWCEntry entry = null;
+        synchronized (this) {
+            load();
+            entry = getMatchingEntry(swcPath);
+            if (entry == null) {
+                return false;
+            }
+            if (entry.verified) {
+                return true;
+            }
+        }
+        //the size and modification time may match even when the contents
+        //don't, so compare the checksum once per session too
+        boolean valid = false;
+        try {
+            valid = computeChecksum(new File(swcPath)) == entry.checksum;
+        } catch (IOException e) {
+            valid = false;
+        }
+        synchronized (this) {
+            if (entries.get(swcPath) != entry) {
+                //the entry was replaced while the checksum was computed
+                return isValid(swcPath);
+            }
+            if (valid) {
+                entry.verified = true;
+            } else {
+                entries.remove(swcPath);
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Returns the cached symbols of every SWC that the project used the last
+     * time that it was loaded, skipping any SWC whose size or modification
+     * time has changed since then. Checksums are not compared, so that the
+     * SWCs don't need to be read.
+     */
+    public synchronized List<CachedSymbol> getSymbols(Path projectRoot) {
+        load();
+        List<CachedSymbol> result = new ArrayList<>();
+        List<String> swcPaths = swcPathsByProject.get(projectRoot.toString());
+        if (swcPaths == null) {
+            return result;
+        }
+        for (String swcPath : swcPaths) {
+            SWCEntry entry = getMatchingEntry(swcPath);
+            if (entry == null) {
+                continue;
+            }
+            result.addAll(entry.symbols);
+        }
+        return result;
+    }
+
+    public void putSymbols(String swcPath, List<CachedSymbol> symbols) {
+        File file = new File(swcPath);
+        SWCEntry entry = new SWCEntry();
+        entry.size = file.length();
+        entry.lastModified = file.lastModified();
+        boolean checksumFailed = false;
+        try {
+            //the cache isn't locked while the SWC is read
+            entry.checksum = computeChecksum(file);
+        } catch (IOException e) {
+            checksumFailed = true;
+        }
+        entry.verified = true;
+        entry.symbols = new ArrayList<>(symbols);
+        synchronized (this) {
+            load();
+            if (checksumFailed) {
+                entries.remove(swcPath);
+                return;
+            }
+            entries.put(swcPath, entry);
+        }
+    }
+
+    public synchronized void setSWCPaths(Path projectRoot, List<String> swcPaths) {
+        load();
+        swcPathsByProject.put(projectRoot.toString(), new ArrayList<>(swcPaths));
+    }
+
+    /**
+     * Records which SWCs are used by a project that has finished loading, and
+     * caches the symbols of any SWC that isn't already up-to-date, including
+     * any SWC whose checksum no longer matches. Resolving
+     * the definitions may be slow, so the cache isn't locked in the meantime,
+     * and the workspace is built for one SWC at a time so that file changes
+     * don't need to wait for all of them.
+     */
+    public void update(Path projectRoot, Iterable<ICompilationUnit> units, IWorkspace workspace) {
+        Map<String, List<ICompilationUnit>> unitsBySWCPath = new HashMap<>();
+        List<String> swcPaths = new ArrayList<>();
+        for (ICompilationUnit unit : units) {
+            if (unit == null || !UnitType.SWC_UNIT.equals(unit.getCompilationUnitType())) {
+                continue;
+            }
+            String swcPath = unit.getAbsoluteFilename();
+            List<ICompilationUnit> swcUnits = unitsBySWCPath.get(swcPath);
+            if (swcUnits == null) {
+                swcUnits = new ArrayList<>();
+                unitsBySWCPath.put(swcPath, swcUnits);
+                swcPaths.add(swcPath);
+            }
+            swcUnits.add(unit);
+        }
+        for (String swcPath : swcPaths) {
+            if (isValid(swcPath)) {
+                continue;
+            }
+            List<CachedSymbol> symbols = new ArrayList<>();
+            workspace.startBuilding();
+            try {
+                for (ICompilationUnit unit : unitsBySWCPath.get(swcPath)) {
+                    for (IDefinition definition : unit.getDefinitionPromises()) {
+                        if (definition instanceof DefinitionPromise) {
+                            DefinitionPromise promise = (DefinitionPromise) definition;
+                            definition = promise.getActualDefinition();
+                        }
+                        if (definition == null || definition.isImplicit() || definition.getBaseName().length() == 0) {
+                            continue;
+                        }
+                        symbols.add(new CachedSymbol(swcPath, definition.getPackageName(), definition.getBaseName(),
+                                LanguageServerCompilerUtils.getSymbolKindFromDefinition(definition),
+                                definition.getDeprecationInfo() != null));
+                    }
+                }
+            } finally {
+                workspace.doneBuilding();
+            }
+            putSymbols(swcPath, symbols);
+        }
+        setSWCPaths(projectRoot, swcPaths);
+        save();
+    }
+
+    /**
+     * Writes the cache to disk. Projects that no longer exist, and SWCs that
+     * are not used by any project, are dropped.
+     */
+    public synchronized void save() {
+        if (!loaded) {
+            return;
+        }
+        swcPathsByProject.keySet().removeIf(projectRoot -> !Files.isDirectory(Paths.get(projectRoot)));
+        Set<String> usedPaths = new HashSet<>();
+        for (List<String> swcPaths : swcPathsByProject.values()) {
+            usedPaths.addAll(swcPaths);
+        }
+        entries.keySet().retainAll(usedPaths);
+        Path tempFile = null;
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            tempFile = Files.createTempFile(cacheFile.getParent(), CACHE_FILE_NAME, ".tmp");
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                write(output);
+            }
+            try {
+                //replace the old file all at once so that another instance of
+                //the language server never reads a partial file
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                //a partial file is detected as corrupt when it is read
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            tempFile = null;
+        } catch (IOException e) {
+            System.err.println("Failed to write SWC symbol cache: " + cacheFile);
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException e) {
+                    //safe to ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a workspace symbol from a cached symbol. Since the SWC hasn't
+     * been loaded yet, the location points to a stub of the definition.
+     */
+    public static SymbolInformation toSymbolInformation(CachedSymbol symbol) {
+        String keyword = getKeyword(symbol.kind);
+        StringBuilder builder = new StringBuilder();
+        builder.append("package");
+        if (symbol.packageName.length() > 0) {
+            builder.append(" ");
+            builder.append(symbol.packageName);
+        }
+        builder.append("\n{\n\tpublic ");
+        builder.append(keyword);
+        builder.append(" ");
+        int nameStart = builder.length() - builder.lastIndexOf("\n") - 1;
+        builder.append(symbol.name);
+        builder.append("\n}");
+
+        Location location = new Location();
+        String escapedText = UrlEscapers.urlFragmentEscaper().escape(builder.toString());
+        location.setUri(URI.create("swc://" + symbol.swcPath + "?" + escapedText).toString());
+        location.setRange(new Range(new Position(2, nameStart), new Position(2, nameStart + symbol.name.length())));
+
+        SymbolInformation result = new SymbolInformation();
+        result.setName(symbol.name);
+        result.setKind(symbol.kind);
+        if (symbol.packageName.length() > 0) {
+            result.setContainerName(symbol.packageName);
+        } else if (SymbolKind.Class.equals(symbol.kind) || SymbolKind.Interface.equals(symbol.kind)) {
+            result.setContainerName(NO_PACKAGE);
+        }
+        result.setLocation(location);
+        if (symbol.deprecated) {
+            result.setDeprecated(true);
+        }
+        return result;
+    }
+
+    private static String getKeyword(SymbolKind kind) {
+        switch (kind) {
+            case Class:
+                return "class";
+            case Interface:
+                return "interface";
+            case Function:
+            case Method:
+                return "function";
+            case Constant:
+                return "const";
+            case Namespace:
+                return "namespace";
+            default:
+                return "var";
+        }
+    }
+
+    private static Path getDefaultCacheFile() {
+        String userHome = System.getProperty("user.home");
+        String osName = System.getProperty("os.name").toLowerCase();
+        Path cacheFolder = null;
+        if (osName.startsWith("windows")) {
+            String localAppData = System.getenv("LOCALAPPDATA");
+            if (localAppData != null) {
+                cacheFolder = Paths.get(localAppData);
+            } else {
+                cacheFolder = Paths.get(userHome, "AppData", "Local");
+            }
+        } else if (osName.startsWith("mac os")) {
+            cacheFolder = Paths.get(userHome, "Library", "Caches");
+        } else {
+            String xdgCacheHome = System.getenv("XDG_CACHE_HOME");
+            if (xdgCacheHome != null && xdgCacheHome.length() > 0) {
+                cacheFolder = Paths.get(xdgCacheHome);
+            } else {
+                cacheFolder = Paths.get(userHome, ".cache");
+            }
+        }
+        return cacheFolder.resolve(CACHE_FOLDER_NAME).resolve(CACHE_FILE_NAME);
+    }
+
+    private SWCEntry getMatchingEntry(String swcPath) {
+        SWCEntry entry = entries.get(swcPath);
+        if (entry == null) {
+            return null;
+        }
+        File file = new File(swcPath);
+        if (file.length() != entry.size || file.lastModified() != entry.lastModified) {
+            entries.remove(swcPath);
+            return null;
+        }
+        return entry;
+    }
+
+    private long computeChecksum(File file) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[65536];
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            int count = 0;
+            while ((count = input.read(buffer)) != -1) {
+                crc.update(buffer, 0, count);
+            }
+        }
+        return crc.getValue();
+    }
+
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!Files.exists(cacheFile)) {
+            return;
+        }
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            read(input);
+        } catch (IOException e) {
+            //if the cache is corrupt, start over
+            entries.clear();
+            swcPathsByProject.clear();
+        }
+    }
+
+    private void read(DataInputStream input) throws IOException {
+        if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+            return;
+        }
+        SymbolKind[] kinds = SymbolKind.values();
+        int entryCount = input.readInt();
+        for (int i = 0; i < entryCount; i++) {
+            String swcPath = input.readUTF();
+            SWCEntry entry = new SWCEntry();
+            entry.size = input.readLong();
+            entry.lastModified = input.readLong();
+            entry.checksum = input.readLong();
+            int symbolCount = input.readInt();
+            List<CachedSymbol> symbols = new ArrayList<>(symbolCount);
+            //package names are written once for consecutive symbols
+            String packageName = "";
+            for (int j = 0; j < symbolCount; j++) {
+                if (input.readBoolean()) {
+                    packageName = input.readUTF();
+                }
+                String name = input.readUTF();
+                int kindIndex = input.readUnsignedByte();
+                if (kindIndex >= kinds.length) {
+                    throw new IOException("Unknown symbol kind: " + kindIndex);
+                }
+                boolean deprecated = input.readBoolean();
+                symbols.add(new CachedSymbol(swcPath, packageName, name, kinds[kindIndex], deprecated));
+            }
+            entry.symbols = symbols;
+            entries.put(swcPath, entry);
+        }
+        int projectCount = input.readInt();
+        for (int i = 0; i < projectCount; i++) {
+            String projectRoot = input.readUTF();
+            int pathCount = input.readInt();
+            List<String> swcPaths = new ArrayList<>(pathCount);
+            for (int j = 0; j < pathCount; j++) {
+                swcPaths.add(input.readUTF());
+            }
+            swcPathsByProject.put(projectRoot, swcPaths);
+        }
+    }
+
+    private void write(DataOutputStream output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeInt(FORMAT_VERSION);
+        output.writeInt(entries.size());
+        for (Map.Entry<String, SWCEntry> mapEntry : entries.entrySet()) {
+            SWCEntry entry = mapEntry.getValue();
+            output.writeUTF(mapEntry.getKey());
+            output.writeLong(entry.size);
+            output.writeLong(entry.lastModified);
+            output.writeLong(entry.checksum);
+            List<CachedSymbol> symbols = new ArrayList<>(entry.symbols);
+            Collections.sort(symbols, (a, b) -> a.packageName.compareTo(b.packageName));
+            output.writeInt(symbols.size());
+            String packageName = "";
+            for (CachedSymbol symbol : symbols) {
+                boolean packageChanged = !symbol.packageName.equals(packageName);
+                output.writeBoolean(packageChanged);
+                if (packageChanged) {
+                    packageName = symbol.packageName;
+                    output.writeUTF(packageName);
+                }
+                output.writeUTF(symbol.name);
+                output.writeByte(symbol.kind.ordinal());
+                output.writeBoolean(symbol.deprecated);
+            }
+        }
+        output.writeInt(swcPathsByProject.size());
+        for (Map.Entry<String, List<String>> mapEntry : swcPathsByProject.entrySet()) {
+            output.writeUTF(mapEntry.getKey());
+            output.writeInt(mapEntry.getValue().size());
+            for (String swcPath : mapEntry.getValue()) {
+                output.writeUTF(swcPath);
+            }
+        }
+    }
+}
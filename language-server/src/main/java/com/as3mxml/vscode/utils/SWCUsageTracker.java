@@ -0,0 +1,121 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.utils;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.apache.royale.compiler.units.ICompilationUnit;
+import org.apache.royale.compiler.units.ICompilationUnit.UnitType;
+import org.apache.royale.compiler.workspaces.IWorkspace;
+import org.apache.royale.swc.ISWCManager;
+
+/**
+ * Tracks which SWC files are used by the projects in a workspace, so that
+ * SWCs that no project uses anymore may be evicted from the workspace's
+ * ISWCManager and their memory reclaimed. The ISWCManager already shares a
+ * single parsed copy of each SWC between the projects, so no SWCs are kept
+ * here.
+ */
+public class SWCUsageTracker {
+    private static final String FILE_EXTENSION_SWC = ".swc";
+    private static final String FILE_EXTENSION_ANE = ".ane";
+
+    private static Map<IWorkspace, SWCUsageTracker> instances = new WeakHashMap<>();
+
+    public static synchronized SWCUsageTracker getInstance(IWorkspace workspace) {
+        SWCUsageTracker instance = instances.get(workspace);
+        if (instance == null) {
+            instance = new SWCUsageTracker(workspace.getSWCManager());
+            instances.put(workspace, instance);
+        }
+        return instance;
+    }
+
+    private SWCUsageTracker(ISWCManager swcManager) {
+        this.swcManager = swcManager;
+    }
+
+    private ISWCManager swcManager;
+    private Map<String, Set<Object>> ownersByPath = new HashMap<>();
+    private Map<Object, Set<String>> pathsByOwner = new HashMap<>();
+
+    /**
+     * Records that the owner uses every SWC used by the project's compilation
+     * units. SWCs that the owner previously used are released, and SWCs that
+     * are no longer used by any owner are evicted.
+     */
+    public synchronized void acquireAll(Object owner, Iterable<ICompilationUnit> units) {
+        releaseAll(owner);
+        Set<String> paths = new HashSet<>();
+        for (ICompilationUnit unit : units) {
+            if (unit == null || !UnitType.SWC_UNIT.equals(unit.getCompilationUnitType())) {
+                continue;
+            }
+            String path = unit.getAbsoluteFilename();
+            if (!path.endsWith(FILE_EXTENSION_SWC) && !path.endsWith(FILE_EXTENSION_ANE)) {
+                continue;
+            }
+            paths.add(path);
+            Set<Object> owners = ownersByPath.get(path);
+            if (owners == null) {
+                owners = new HashSet<>();
+                ownersByPath.put(path, owners);
+            }
+            owners.add(owner);
+        }
+        pathsByOwner.put(owner, paths);
+        evictUnused();
+    }
+
+    /**
+     * Releases all SWCs used by the owner. When a project is created again,
+     * the old project releases its SWCs before the new project acquires them,
+     * so unused SWCs are not evicted until evictUnused() is called.
+     */
+    public synchronized void releaseAll(Object owner) {
+        Set<String> paths = pathsByOwner.remove(owner);
+        if (paths == null) {
+            return;
+        }
+        for (String path : paths) {
+            Set<Object> owners = ownersByPath.get(path);
+            if (owners != null) {
+                owners.remove(owner);
+            }
+        }
+    }
+
+    /**
+     * Evicts the SWCs that are no longer used by any project from the
+     * workspace's ISWCManager.
+     */
+    public synchronized void evictUnused() {
+        Iterator<Map.Entry<String, Set<Object>>> iterator = ownersByPath.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Set<Object>> entry = iterator.next();
+            if (entry.getValue().isEmpty()) {
+                iterator.remove();
+                swcManager.remove(new File(entry.getKey()));
+            }
+        }
+    }
+}
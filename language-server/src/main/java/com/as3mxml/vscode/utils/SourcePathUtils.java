@@ -18,6 +18,7 @@ package com.as3mxml.vscode.utils;
 import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.royale.compiler.config.Configuration;
@@ -85,6 +86,32 @@ public class SourcePathUtils
         return false;
     }
 
+    /**
+     * Returns every folder or file that isInProjectSourcePath() considers to be
+     * part of the project's source path.
+     */
+    public static List<Path> getSourcePathRoots(IASProject project, RoyaleProjectConfigurator configurator)
+    {
+        List<Path> result = new ArrayList<>();
+        if (project == null)
+        {
+            return result;
+        }
+        for (File sourcePath : project.getSourcePath())
+        {
+            result.add(sourcePath.toPath());
+        }
+        if (configurator != null)
+        {
+            Configuration configuration = configurator.getConfiguration();
+            for (String includedSource : configuration.getIncludeSources())
+            {
+                result.add(Paths.get(includedSource));
+            }
+        }
+        return result;
+    }
+
     public static boolean isInProjectLibraryPathOrExternalLibraryPath(Path path, IRoyaleProject project, Configuration configuration)
     {
 		if (project == null || configuration == null)
@@ -0,0 +1,188 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.royale.compiler.internal.parsing.as.ASParser;
+import org.apache.royale.compiler.internal.parsing.as.ASToken;
+import org.apache.royale.compiler.internal.parsing.as.RepairingTokenBuffer;
+import org.apache.royale.compiler.internal.parsing.as.StreamingASTokenizer;
+import org.apache.royale.compiler.internal.tree.as.FileNode;
+import org.apache.royale.compiler.internal.workspaces.Workspace;
+import org.apache.royale.compiler.problems.ICompilerProblem;
+
+/**
+ * Remembers the results of parsing files that don't have a compilation unit,
+ * like open files that are outside of every project's source path, so that
+ * they're parsed again only when they change. Open files are compared by the
+ * version from the file tracker, and other files by their modification time.
+ *
+ * <p>Some features only need the tokens of a file, so tokens may be requested
+ * without parsing the whole file. These tokens include comments. The parser
+ * may modify its tokens, so the tokens are never shared with the parser.</p>
+ */
+public class SyntaxParseCache {
+    private static final int MAX_FILES = 32;
+
+    public static class ParseResult {
+        public ParseResult(FileNode fileNode, List<ICompilerProblem> problems) {
+            this.fileNode = fileNode;
+            this.problems = problems;
+        }
+
+        //null if the file could not be parsed
+        public FileNode fileNode;
+        public List<ICompilerProblem> problems;
+    }
+
+    private static class CacheEntry {
+        public CacheEntry(boolean open, long version) {
+            this.open = open;
+            this.version = version;
+        }
+
+        public boolean open;
+        public long version;
+        public ParseResult parseResult;
+        public ASToken[] tokens;
+    }
+
+    public SyntaxParseCache(FileTracker fileTracker) {
+        this.fileTracker = fileTracker;
+    }
+
+    private FileTracker fileTracker;
+    private Map<Path, CacheEntry> entries = new LinkedHashMap<Path, CacheEntry>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, CacheEntry> eldest) {
+            return size() > MAX_FILES;
+        }
+    };
+
+    /**
+     * Returns the syntax tree of the file, and its syntax problems. Returns
+     * null if the file can't be read.
+     */
+    public synchronized ParseResult getParseResult(Path path) {
+        CacheEntry entry = getEntry(path);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.parseResult == null) {
+            Reader reader = fileTracker.getReader(path);
+            if (reader == null) {
+                entries.remove(path);
+                return null;
+            }
+            entry.parseResult = parse(path, reader);
+        }
+        return entry.parseResult;
+    }
+
+    /**
+     * Returns the tokens of the file, without parsing it. Returns null if the
+     * file can't be read.
+     */
+    public synchronized ASToken[] getTokens(Path path) {
+        CacheEntry entry = getEntry(path);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.tokens == null) {
+            Reader reader = fileTracker.getReader(path);
+            if (reader == null) {
+                entries.remove(path);
+                return null;
+            }
+            //comments are included so that they may be folded
+            entry.tokens = tokenize(path, reader, true, new ArrayList<>());
+        }
+        return entry.tokens;
+    }
+
+    private CacheEntry getEntry(Path path) {
+        boolean open = fileTracker.isOpen(path);
+        long version = -1;
+        if (open) {
+            version = fileTracker.getVersion(path);
+        } else {
+            File file = path.toFile();
+            if (!file.exists()) {
+                entries.remove(path);
+                return null;
+            }
+            version = file.lastModified();
+        }
+        CacheEntry entry = entries.get(path);
+        if (entry == null || entry.open != open || entry.version != version) {
+            entry = new CacheEntry(open, version);
+            entries.put(path, entry);
+        }
+        return entry;
+    }
+
+    private ASToken[] tokenize(Path path, Reader reader, boolean collectComments, List<ICompilerProblem> problems) {
+        StreamingASTokenizer tokenizer = null;
+        ASToken[] tokens = null;
+        try {
+            tokenizer = StreamingASTokenizer.createForRepairingASTokenizer(reader, path.toString(), null);
+            if (collectComments) {
+                tokenizer.setCollectComments(true);
+            }
+            tokens = tokenizer.getTokens(reader);
+        } finally {
+            try {
+                reader.close();
+            } catch (IOException e) {
+            }
+        }
+        if (tokenizer.hasTokenizationProblems()) {
+            problems.addAll(tokenizer.getTokenizationProblems());
+        }
+        return tokens;
+    }
+
+    private ParseResult parse(Path path, Reader reader) {
+        List<ICompilerProblem> problems = new ArrayList<>();
+        ASToken[] tokens = tokenize(path, reader, false, problems);
+        RepairingTokenBuffer buffer = new RepairingTokenBuffer(tokens);
+
+        Workspace workspace = new Workspace();
+        workspace.endRequest();
+        ASParser parser = new ASParser(workspace, buffer);
+        FileNode node = new FileNode(workspace);
+        try {
+            parser.file(node);
+        } catch (Exception e) {
+            System.err.println("Failed to parse file (" + path.toString() + "): " + e);
+            e.printStackTrace(System.err);
+            return new ParseResult(null, Collections.unmodifiableList(problems));
+        }
+        problems.addAll(parser.getSyntaxProblems());
+        return new ParseResult(node, Collections.unmodifiableList(problems));
+    }
+}
@@ -0,0 +1,325 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import org.apache.royale.compiler.definitions.IClassDefinition;
+import org.apache.royale.compiler.definitions.IDefinition;
+import org.apache.royale.compiler.definitions.IInterfaceDefinition;
+import org.apache.royale.compiler.definitions.ITypeDefinition;
+import org.apache.royale.compiler.definitions.references.IReference;
+import org.apache.royale.compiler.projects.ICompilerProject;
+import org.apache.royale.compiler.units.ICompilationUnit;
+import org.apache.royale.compiler.units.ICompilationUnit.UnitType;
+import org.apache.royale.compiler.units.requests.IFileScopeRequestResult;
+
+/**
+ * Maps each type in a project to the types that directly extend or implement
+ * it, so that all subtypes of a class or interface may be found without
+ * resolving the ancestry of every type in the project.
+ *
+ * <p>The index is updated lazily before each query. Only the compilation
+ * units of files that have been marked as changed since the previous query
+ * are read again, along with any types that extend a type that was added,
+ * removed, or changed by one of those units.</p>
+ *
+ * <p>Each project has its own index, which should be cleared when the project
+ * is deleted.</p>
+ */
+public class TypeHierarchyIndex {
+    private static class TypeEntry {
+        public TypeEntry(ITypeDefinition definition, boolean source) {
+            this.definition = definition;
+            this.source = source;
+            qualifiedName = definition.getQualifiedName();
+        }
+
+        public ITypeDefinition definition;
+        public String qualifiedName;
+        //false if the type is defined in a library, like a SWC
+        public boolean source;
+        public Set<String> supertypes = Collections.emptySet();
+        public boolean unresolved;
+    }
+
+    private static class UnitEntry {
+        public UnitEntry(ICompilationUnit unit, IFileScopeRequestResult fileScope) {
+            this.unit = unit;
+            this.fileScope = fileScope;
+        }
+
+        public ICompilationUnit unit;
+        public IFileScopeRequestResult fileScope;
+        public List<TypeEntry> types = new ArrayList<>();
+    }
+
+    private ICompilerProject project;
+    //a SWC has many compilation units with the same path
+    private Map<String, List<UnitEntry>> unitEntriesByPath = new HashMap<>();
+    private Map<String, List<TypeEntry>> subtypesBySupertype = new HashMap<>();
+    private Set<String> changedPaths = new HashSet<>();
+
+    /**
+     * Returns every class and interface defined in an ActionScript or MXML
+     * source file that extends or implements the type, directly or
+     * indirectly. Subtypes that are defined in libraries are not included,
+     * but the source types that extend them are. The type itself is not
+     * included.
+     */
+    public synchronized List<ITypeDefinition> findAllSourceSubtypes(ICompilerProject project, String qualifiedName) {
+        refresh(project);
+        List<ITypeDefinition> result = new ArrayList<>();
+        for (TypeEntry entry : findAllSubtypeEntries(qualifiedName)) {
+            if (entry.source) {
+                result.add(entry.definition);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the qualified names of every class and interface that extends
+     * or implements the type, directly or indirectly. The type itself is not
+     * included.
+     */
+    public synchronized Set<String> findAllSubtypeNames(ICompilerProject project, String qualifiedName) {
+        refresh(project);
+        Set<String> result = new HashSet<>();
+        for (TypeEntry entry : findAllSubtypeEntries(qualifiedName)) {
+            result.add(entry.qualifiedName);
+        }
+        return result;
+    }
+
+    private Set<TypeEntry> findAllSubtypeEntries(String qualifiedName) {
+        Set<TypeEntry> result = new LinkedHashSet<>();
+        Set<String> visited = new HashSet<>();
+        Queue<String> queue = new ArrayDeque<>();
+        visited.add(qualifiedName);
+        queue.add(qualifiedName);
+        while (!queue.isEmpty()) {
+            List<TypeEntry> subtypes = subtypesBySupertype.get(queue.remove());
+            if (subtypes == null) {
+                continue;
+            }
+            for (TypeEntry subtype : subtypes) {
+                result.add(subtype);
+                if (visited.add(subtype.qualifiedName)) {
+                    queue.add(subtype.qualifiedName);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Should be called when a file is changed, added, or removed, with its
+     * normalized path. Its compilation units are read again before the next
+     * query.
+     */
+    public synchronized void markChanged(String path) {
+        if (project == null) {
+            //the whole index will be built by the next query
+            return;
+        }
+        changedPaths.add(path);
+    }
+
+    /**
+     * Should be called when the project is deleted.
+     */
+    public synchronized void clear() {
+        project = null;
+        unitEntriesByPath.clear();
+        subtypesBySupertype.clear();
+        changedPaths.clear();
+    }
+
+    private void refresh(ICompilerProject newProject) {
+        Set<String> changedNames = new HashSet<>();
+        Set<TypeEntry> changedTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (project != newProject) {
+            //the project was replaced, so nothing can be reused
+            clear();
+            project = newProject;
+            Map<String, List<ICompilationUnit>> unitsByPath = new HashMap<>();
+            for (ICompilationUnit unit : project.getCompilationUnits()) {
+                if (unit == null) {
+                    continue;
+                }
+                List<ICompilationUnit> units = unitsByPath.get(unit.getAbsoluteFilename());
+                if (units == null) {
+                    units = new ArrayList<>();
+                    unitsByPath.put(unit.getAbsoluteFilename(), units);
+                }
+                units.add(unit);
+            }
+            for (Map.Entry<String, List<ICompilationUnit>> mapEntry : unitsByPath.entrySet()) {
+                refreshPath(mapEntry.getKey(), mapEntry.getValue(), changedNames, changedTypes);
+            }
+        } else {
+            Set<String> pathsToRefresh = new HashSet<>(changedPaths);
+            for (String path : changedPaths) {
+                //the types of an included file are declared by the files that
+                //include it
+                for (ICompilationUnit unit : project.getIncludingCompilationUnits(path)) {
+                    pathsToRefresh.add(unit.getAbsoluteFilename());
+                }
+            }
+            for (String path : pathsToRefresh) {
+                refreshPath(path, project.getCompilationUnits(path), changedNames, changedTypes);
+            }
+            changedPaths.clear();
+        }
+        //an unresolved supertype can't resolve until a type is added, so
+        //nothing needs to be resolved again if no types have changed
+        if (changedNames.isEmpty() && changedTypes.isEmpty()) {
+            return;
+        }
+        for (TypeEntry typeEntry : changedTypes) {
+            resolveSupertypes(typeEntry);
+        }
+        subtypesBySupertype.clear();
+        for (List<UnitEntry> unitEntries : unitEntriesByPath.values()) {
+            for (UnitEntry unitEntry : unitEntries) {
+                for (TypeEntry typeEntry : unitEntry.types) {
+                    if (!changedTypes.contains(typeEntry) && (typeEntry.unresolved
+                            || !Collections.disjoint(typeEntry.supertypes, changedNames))) {
+                        //a supertype may now resolve to something different
+                        resolveSupertypes(typeEntry);
+                    }
+                    for (String supertype : typeEntry.supertypes) {
+                        List<TypeEntry> subtypes = subtypesBySupertype.get(supertype);
+                        if (subtypes == null) {
+                            subtypes = new ArrayList<>();
+                            subtypesBySupertype.put(supertype, subtypes);
+                        }
+                        subtypes.add(typeEntry);
+                    }
+                }
+            }
+        }
+    }
+
+    private void refreshPath(String path, Collection<ICompilationUnit> units, Set<String> changedNames,
+            Set<TypeEntry> changedTypes) {
+        Map<ICompilationUnit, UnitEntry> oldUnitEntries = new IdentityHashMap<>();
+        List<UnitEntry> oldEntries = unitEntriesByPath.remove(path);
+        if (oldEntries != null) {
+            for (UnitEntry unitEntry : oldEntries) {
+                oldUnitEntries.put(unitEntry.unit, unitEntry);
+            }
+        }
+        List<UnitEntry> newEntries = new ArrayList<>();
+        for (ICompilationUnit unit : units) {
+            if (unit == null) {
+                continue;
+            }
+            IFileScopeRequestResult fileScope = null;
+            try {
+                fileScope = unit.getFileScopeRequest().get();
+            } catch (Exception e) {
+                //safe to ignore
+                continue;
+            }
+            UnitEntry unitEntry = oldUnitEntries.get(unit);
+            if (unitEntry != null && unitEntry.fileScope == fileScope) {
+                //the file was marked as changed, but its workspace hasn't
+                //been notified yet, or its types didn't change
+                oldUnitEntries.remove(unit);
+                newEntries.add(unitEntry);
+                continue;
+            }
+            unitEntry = new UnitEntry(unit, fileScope);
+            UnitType unitType = unit.getCompilationUnitType();
+            boolean source = UnitType.AS_UNIT.equals(unitType) || UnitType.MXML_UNIT.equals(unitType);
+            for (IDefinition definition : fileScope.getExternallyVisibleDefinitions()) {
+                if (!(definition instanceof ITypeDefinition)) {
+                    continue;
+                }
+                TypeEntry typeEntry = new TypeEntry((ITypeDefinition) definition, source);
+                unitEntry.types.add(typeEntry);
+                changedTypes.add(typeEntry);
+            }
+            addTypeNames(unitEntry, changedNames);
+            newEntries.add(unitEntry);
+        }
+        for (UnitEntry unitEntry : oldUnitEntries.values()) {
+            //the unit was rebuilt or removed
+            addTypeNames(unitEntry, changedNames);
+        }
+        if (newEntries.size() > 0) {
+            unitEntriesByPath.put(path, newEntries);
+        }
+    }
+
+    private void addTypeNames(UnitEntry unitEntry, Set<String> result) {
+        for (TypeEntry typeEntry : unitEntry.types) {
+            result.add(typeEntry.qualifiedName);
+        }
+    }
+
+    private void resolveSupertypes(TypeEntry typeEntry) {
+        Set<String> supertypes = new HashSet<>();
+        boolean unresolved = false;
+        if (typeEntry.definition instanceof IClassDefinition) {
+            IClassDefinition classDefinition = (IClassDefinition) typeEntry.definition;
+            IClassDefinition baseClass = classDefinition.resolveBaseClass(project);
+            if (baseClass != null) {
+                supertypes.add(baseClass.getQualifiedName());
+            } else if (classDefinition.getBaseClassReference() != null) {
+                unresolved = true;
+            }
+            unresolved |= addInterfaces(classDefinition.resolveImplementedInterfaces(project),
+                    classDefinition.getImplementedInterfaceReferences(), supertypes);
+        } else if (typeEntry.definition instanceof IInterfaceDefinition) {
+            IInterfaceDefinition interfaceDefinition = (IInterfaceDefinition) typeEntry.definition;
+            unresolved |= addInterfaces(interfaceDefinition.resolveExtendedInterfaces(project),
+                    interfaceDefinition.getExtendedInterfaceReferences(), supertypes);
+        }
+        //a type can't be its own supertype, even if the code is invalid
+        supertypes.remove(typeEntry.qualifiedName);
+        typeEntry.supertypes = supertypes;
+        typeEntry.unresolved = unresolved;
+    }
+
+    private boolean addInterfaces(IInterfaceDefinition[] interfaces, IReference[] references, Set<String> result) {
+        int resolvedCount = 0;
+        if (interfaces != null) {
+            for (IInterfaceDefinition interfaceDefinition : interfaces) {
+                if (interfaceDefinition == null) {
+                    continue;
+                }
+                result.add(interfaceDefinition.getQualifiedName());
+                resolvedCount++;
+            }
+        }
+        int referenceCount = references != null ? references.length : 0;
+        return resolvedCount < referenceCount;
+    }
+}
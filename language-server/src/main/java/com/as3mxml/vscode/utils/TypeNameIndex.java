@@ -0,0 +1,231 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.royale.compiler.definitions.IDefinition;
+import org.apache.royale.compiler.definitions.ITypeDefinition;
+import org.apache.royale.compiler.projects.ICompilerProject;
+import org.apache.royale.compiler.units.ICompilationUnit;
+import org.apache.royale.compiler.units.requests.IFileScopeRequestResult;
+
+/**
+ * Maps the simple names of the types in a project, including those in SWCs,
+ * to the types that may be imported with that name. Types in the top-level
+ * package don't need to be imported, so they are excluded. Names are case
+ * sensitive.
+ *
+ * <p>The index is updated lazily before each query. Only the compilation
+ * units of files that have been marked as changed since the previous query
+ * are read again.</p>
+ *
+ * <p>Each project has its own index, which should be cleared when the project
+ * is deleted.</p>
+ */
+public class TypeNameIndex {
+    private static class UnitEntry {
+        public UnitEntry(ICompilationUnit unit, IFileScopeRequestResult fileScope) {
+            this.unit = unit;
+            this.fileScope = fileScope;
+        }
+
+        public ICompilationUnit unit;
+        public IFileScopeRequestResult fileScope;
+        public List<ITypeDefinition> types = new ArrayList<>();
+    }
+
+    private ICompilerProject project;
+    //a SWC has many compilation units with the same path
+    private Map<String, List<UnitEntry>> unitEntriesByPath = new HashMap<>();
+    private Map<String, List<ITypeDefinition>> typesByName = new HashMap<>();
+    private Set<String> changedPaths = new HashSet<>();
+
+    /**
+     * Returns the types that may be imported with the specified name.
+     */
+    public synchronized List<IDefinition> findTypesThatMatchName(ICompilerProject project, String nameToFind) {
+        refresh(project);
+        return getTypes(nameToFind);
+    }
+
+    /**
+     * Returns the types that may be imported with each of the specified
+     * names. Names that don't match any types are omitted.
+     */
+    public synchronized Map<String, List<IDefinition>> findTypesThatMatchNames(ICompilerProject project,
+            Collection<String> namesToFind) {
+        refresh(project);
+        Map<String, List<IDefinition>> result = new HashMap<>();
+        for (String nameToFind : namesToFind) {
+            List<IDefinition> types = getTypes(nameToFind);
+            if (types.size() > 0) {
+                result.put(nameToFind, types);
+            }
+        }
+        return result;
+    }
+
+    private List<IDefinition> getTypes(String nameToFind) {
+        List<ITypeDefinition> types = typesByName.get(nameToFind);
+        if (types == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(types);
+    }
+
+    /**
+     * Should be called when a file is changed, added, or removed, with its
+     * normalized path. Its compilation units are read again before the next
+     * query.
+     */
+    public synchronized void markChanged(String path) {
+        if (project == null) {
+            //the whole index will be built by the next query
+            return;
+        }
+        changedPaths.add(path);
+    }
+
+    /**
+     * Should be called when the project is deleted.
+     */
+    public synchronized void clear() {
+        project = null;
+        unitEntriesByPath.clear();
+        typesByName.clear();
+        changedPaths.clear();
+    }
+
+    private void refresh(ICompilerProject newProject) {
+        if (project != newProject) {
+            //the project was replaced, so nothing can be reused
+            clear();
+            project = newProject;
+            Map<String, List<ICompilationUnit>> unitsByPath = new HashMap<>();
+            for (ICompilationUnit unit : project.getCompilationUnits()) {
+                if (unit == null) {
+                    continue;
+                }
+                List<ICompilationUnit> units = unitsByPath.get(unit.getAbsoluteFilename());
+                if (units == null) {
+                    units = new ArrayList<>();
+                    unitsByPath.put(unit.getAbsoluteFilename(), units);
+                }
+                units.add(unit);
+            }
+            for (Map.Entry<String, List<ICompilationUnit>> mapEntry : unitsByPath.entrySet()) {
+                refreshPath(mapEntry.getKey(), mapEntry.getValue());
+            }
+            return;
+        }
+        Set<String> pathsToRefresh = new HashSet<>(changedPaths);
+        for (String path : changedPaths) {
+            //the types of an included file are declared by the files that
+            //include it
+            for (ICompilationUnit unit : project.getIncludingCompilationUnits(path)) {
+                pathsToRefresh.add(unit.getAbsoluteFilename());
+            }
+        }
+        for (String path : pathsToRefresh) {
+            refreshPath(path, project.getCompilationUnits(path));
+        }
+        changedPaths.clear();
+    }
+
+    private void refreshPath(String path, Collection<ICompilationUnit> units) {
+        Map<ICompilationUnit, UnitEntry> oldUnitEntries = new IdentityHashMap<>();
+        List<UnitEntry> oldEntries = unitEntriesByPath.remove(path);
+        if (oldEntries != null) {
+            for (UnitEntry unitEntry : oldEntries) {
+                oldUnitEntries.put(unitEntry.unit, unitEntry);
+            }
+        }
+        List<UnitEntry> newEntries = new ArrayList<>();
+        for (ICompilationUnit unit : units) {
+            if (unit == null) {
+                continue;
+            }
+            IFileScopeRequestResult fileScope = null;
+            try {
+                fileScope = unit.getFileScopeRequest().get();
+            } catch (Exception e) {
+                //safe to ignore
+                continue;
+            }
+            UnitEntry unitEntry = oldUnitEntries.get(unit);
+            if (unitEntry != null && unitEntry.fileScope == fileScope) {
+                //the file was marked as changed, but its workspace hasn't
+                //been notified yet, or its types didn't change
+                oldUnitEntries.remove(unit);
+                newEntries.add(unitEntry);
+                continue;
+            }
+            unitEntry = new UnitEntry(unit, fileScope);
+            Collection<IDefinition> definitions = fileScope.getExternallyVisibleDefinitions();
+            if (definitions != null) {
+                for (IDefinition definition : definitions) {
+                    if (!(definition instanceof ITypeDefinition)) {
+                        continue;
+                    }
+                    ITypeDefinition typeDefinition = (ITypeDefinition) definition;
+                    String baseName = typeDefinition.getBaseName();
+                    if (typeDefinition.getQualifiedName().equals(baseName)) {
+                        //this definition is top-level. no import required.
+                        continue;
+                    }
+                    unitEntry.types.add(typeDefinition);
+                    List<ITypeDefinition> types = typesByName.get(baseName);
+                    if (types == null) {
+                        types = new ArrayList<>(1);
+                        typesByName.put(baseName, types);
+                    }
+                    types.add(typeDefinition);
+                }
+            }
+            newEntries.add(unitEntry);
+        }
+        for (UnitEntry unitEntry : oldUnitEntries.values()) {
+            //the unit was rebuilt or removed
+            removeTypes(unitEntry);
+        }
+        if (newEntries.size() > 0) {
+            unitEntriesByPath.put(path, newEntries);
+        }
+    }
+
+    private void removeTypes(UnitEntry unitEntry) {
+        for (ITypeDefinition typeDefinition : unitEntry.types) {
+            String baseName = typeDefinition.getBaseName();
+            List<ITypeDefinition> types = typesByName.get(baseName);
+            if (types == null) {
+                continue;
+            }
+            //remove by identity because definitions don't override equals()
+            types.removeIf(other -> other == typeDefinition);
+            if (types.isEmpty()) {
+                typesByName.remove(baseName);
+            }
+        }
+    }
+}
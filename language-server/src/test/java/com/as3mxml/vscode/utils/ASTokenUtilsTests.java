@@ -0,0 +1,118 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.utils;
+
+import java.io.StringReader;
+import java.util.List;
+
+import org.apache.royale.compiler.internal.parsing.as.ASToken;
+import org.apache.royale.compiler.internal.parsing.as.StreamingASTokenizer;
+import org.eclipse.lsp4j.DocumentSymbol;
+import org.eclipse.lsp4j.FoldingRange;
+import org.eclipse.lsp4j.FoldingRangeKind;
+import org.eclipse.lsp4j.SymbolKind;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ASTokenUtilsTests {
+	private ASToken[] tokenize(String text) {
+		StringReader reader = new StringReader(text);
+		StreamingASTokenizer tokenizer = StreamingASTokenizer.createForRepairingASTokenizer(reader, "Test.as", null);
+		tokenizer.setCollectComments(true);
+		return tokenizer.getTokens(reader);
+	}
+
+	@Test
+	void testTokensToFoldingRangesWithBlocksAndComments() {
+		String text = "package\n" + "{\n" + "\t/**\n" + "\t * Docs\n" + "\t */\n" + "\tpublic class Test\n" + "\t{\n"
+				+ "\t}\n" + "}";
+		List<FoldingRange> result = ASTokenUtils.tokensToFoldingRanges(tokenize(text));
+		Assertions.assertEquals(2, result.size(), "ASTokenUtils.tokensToFoldingRanges() returned incorrect length.");
+		FoldingRange comment = result.get(0);
+		Assertions.assertEquals(2, comment.getStartLine(),
+				"ASTokenUtils.tokensToFoldingRanges() returned incorrect comment start.");
+		Assertions.assertEquals(4, comment.getEndLine(),
+				"ASTokenUtils.tokensToFoldingRanges() returned incorrect comment end.");
+		Assertions.assertEquals(FoldingRangeKind.Comment, comment.getKind(),
+				"ASTokenUtils.tokensToFoldingRanges() returned incorrect comment kind.");
+		FoldingRange packageBlock = result.get(1);
+		Assertions.assertEquals(1, packageBlock.getStartLine(),
+				"ASTokenUtils.tokensToFoldingRanges() returned incorrect block start.");
+		Assertions.assertEquals(7, packageBlock.getEndLine(),
+				"ASTokenUtils.tokensToFoldingRanges() returned incorrect block end.");
+	}
+
+	@Test
+	void testTokensToDocumentSymbolsWithClassMembers() {
+		String text = "package\n" + "{\n" + "\tpublic class Test\n" + "\t{\n" + "\t\tpublic function Test()\n"
+				+ "\t\t{\n" + "\t\t\tvar local:int = 0;\n" + "\t\t}\n" + "\t\tpublic var field:String;\n"
+				+ "\t\tpublic static const CONSTANT:int = 1;\n"
+				+ "\t\tpublic function get property():int { return 0; }\n" + "\t\tpublic function method():void {}\n"
+				+ "\t}\n" + "}";
+		List<DocumentSymbol> result = ASTokenUtils.tokensToDocumentSymbols(tokenize(text));
+		Assertions.assertEquals(1, result.size(), "ASTokenUtils.tokensToDocumentSymbols() returned incorrect length.");
+		DocumentSymbol classSymbol = result.get(0);
+		Assertions.assertEquals("Test", classSymbol.getName(),
+				"ASTokenUtils.tokensToDocumentSymbols() returned incorrect name.");
+		Assertions.assertEquals(SymbolKind.Class, classSymbol.getKind(),
+				"ASTokenUtils.tokensToDocumentSymbols() returned incorrect kind.");
+		List<DocumentSymbol> children = classSymbol.getChildren();
+		Assertions.assertEquals(5, children.size(),
+				"ASTokenUtils.tokensToDocumentSymbols() returned incorrect member count.");
+		Assertions.assertEquals(SymbolKind.Constructor, children.get(0).getKind(),
+				"ASTokenUtils.tokensToDocumentSymbols() returned incorrect constructor kind.");
+		Assertions.assertEquals("field", children.get(1).getName(),
+				"ASTokenUtils.tokensToDocumentSymbols() returned incorrect field name.");
+		Assertions.assertEquals(SymbolKind.Field, children.get(1).getKind(),
+				"ASTokenUtils.tokensToDocumentSymbols() returned incorrect field kind.");
+		Assertions.assertEquals(SymbolKind.Constant, children.get(2).getKind(),
+				"ASTokenUtils.tokensToDocumentSymbols() returned incorrect constant kind.");
+		Assertions.assertEquals("property", children.get(3).getName(),
+				"ASTokenUtils.tokensToDocumentSymbols() returned incorrect property name.");
+		Assertions.assertEquals(SymbolKind.Property, children.get(3).getKind(),
+				"ASTokenUtils.tokensToDocumentSymbols() returned incorrect property kind.");
+		Assertions.assertEquals(SymbolKind.Method, children.get(4).getKind(),
+				"ASTokenUtils.tokensToDocumentSymbols() returned incorrect method kind.");
+	}
+
+	@Test
+	void testTokensToDocumentSymbolsSkipsLocalsInAnonymousFunction() {
+		String text = "package\n" + "{\n" + "\tpublic class Test\n" + "\t{\n"
+				+ "\t\tprivate var callback:Function = function():void\n" + "\t\t{\n" + "\t\t\tvar local:int = 0;\n"
+				+ "\t\t};\n" + "\t\tprivate var after:int;\n" + "\t}\n" + "}";
+		List<DocumentSymbol> result = ASTokenUtils.tokensToDocumentSymbols(tokenize(text));
+		Assertions.assertEquals(1, result.size(), "ASTokenUtils.tokensToDocumentSymbols() returned incorrect length.");
+		List<DocumentSymbol> children = result.get(0).getChildren();
+		Assertions.assertEquals(2, children.size(),
+				"ASTokenUtils.tokensToDocumentSymbols() must skip locals in anonymous functions.");
+		Assertions.assertEquals("callback", children.get(0).getName(),
+				"ASTokenUtils.tokensToDocumentSymbols() returned incorrect field name.");
+		Assertions.assertEquals("after", children.get(1).getName(),
+				"ASTokenUtils.tokensToDocumentSymbols() returned incorrect field name.");
+	}
+
+	@Test
+	void testTokensToDocumentSymbolsWithInterfaceMethods() {
+		String text = "package\n" + "{\n" + "\tpublic interface ITest\n" + "\t{\n" + "\t\tfunction first():void;\n"
+				+ "\t\tfunction second():void;\n" + "\t}\n" + "}";
+		List<DocumentSymbol> result = ASTokenUtils.tokensToDocumentSymbols(tokenize(text));
+		Assertions.assertEquals(1, result.size(), "ASTokenUtils.tokensToDocumentSymbols() returned incorrect length.");
+		Assertions.assertEquals(SymbolKind.Interface, result.get(0).getKind(),
+				"ASTokenUtils.tokensToDocumentSymbols() returned incorrect kind.");
+		Assertions.assertEquals(2, result.get(0).getChildren().size(),
+				"ASTokenUtils.tokensToDocumentSymbols() returned incorrect member count.");
+	}
+}
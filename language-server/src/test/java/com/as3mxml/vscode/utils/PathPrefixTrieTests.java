@@ -0,0 +1,63 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.utils;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PathPrefixTrieTests {
+	@Test
+	void testFindAllWithNestedPrefixes() {
+		PathPrefixTrie<String> trie = new PathPrefixTrie<>();
+		trie.put(Paths.get("/workspace/project"), "outer");
+		trie.put(Paths.get("/workspace/project/src"), "inner");
+		List<String> result = trie.findAll(Paths.get("/workspace/project/src/com/example/Main.as"));
+		Assertions.assertEquals(Arrays.asList("outer", "inner"), result,
+				"PathPrefixTrie.findAll() returned incorrect values.");
+	}
+
+	@Test
+	void testFindAllWithExactPath() {
+		PathPrefixTrie<String> trie = new PathPrefixTrie<>();
+		trie.put(Paths.get("/workspace/project/src/Main.as"), "file");
+		List<String> result = trie.findAll(Paths.get("/workspace/project/src/Main.as"));
+		Assertions.assertEquals(Collections.singletonList("file"), result,
+				"PathPrefixTrie.findAll() returned incorrect values.");
+	}
+
+	@Test
+	void testFindAllWithPartialNameElement() {
+		PathPrefixTrie<String> trie = new PathPrefixTrie<>();
+		trie.put(Paths.get("/workspace/src"), "src");
+		List<String> result = trie.findAll(Paths.get("/workspace/src2/Main.as"));
+		Assertions.assertTrue(result.isEmpty(), "PathPrefixTrie.findAll() must match whole name elements.");
+	}
+
+	@Test
+	void testFindAllAfterClear() {
+		PathPrefixTrie<String> trie = new PathPrefixTrie<>();
+		trie.put(Paths.get("/workspace/src"), "src");
+		trie.clear();
+		Assertions.assertTrue(trie.isEmpty(), "PathPrefixTrie.isEmpty() must be true after clear().");
+		List<String> result = trie.findAll(Paths.get("/workspace/src/Main.as"));
+		Assertions.assertTrue(result.isEmpty(), "PathPrefixTrie.findAll() must be empty after clear().");
+	}
+}
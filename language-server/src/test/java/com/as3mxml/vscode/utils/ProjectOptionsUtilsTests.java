@@ -0,0 +1,71 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.as3mxml.asconfigc.compiler.ProjectType;
+import com.as3mxml.vscode.project.ProjectOptions;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ProjectOptionsUtilsTests {
+	private ProjectOptions createOptions(String... compilerOptions) {
+		ProjectOptions options = new ProjectOptions();
+		options.type = ProjectType.APP;
+		options.config = "flex";
+		options.files = new String[] { "/workspace/src/Main.as" };
+		options.compilerOptions = new ArrayList<>(Arrays.asList(compilerOptions));
+		return options;
+	}
+
+	@Test
+	void testEquivalentOptions() {
+		ProjectOptions oldOptions = createOptions("--source-path+=src", "--debug=true");
+		ProjectOptions newOptions = createOptions("--source-path+=src");
+		newOptions.additionalOptions = "-debug=true";
+		Assertions.assertTrue(ProjectOptionsUtils.isEquivalent(oldOptions, newOptions),
+				"ProjectOptionsUtils.isEquivalent() must ignore where an option is specified.");
+	}
+
+	@Test
+	void testCanReconfigureWithNewDefine() {
+		ProjectOptions oldOptions = createOptions("--source-path+=src");
+		ProjectOptions newOptions = createOptions("--source-path+=src", "--define+=CONFIG::debug,true");
+		Assertions.assertFalse(ProjectOptionsUtils.isEquivalent(oldOptions, newOptions));
+		Assertions.assertTrue(ProjectOptionsUtils.canReconfigure(oldOptions, newOptions),
+				"ProjectOptionsUtils.canReconfigure() must allow a new define.");
+	}
+
+	@Test
+	void testCannotReconfigureWithNewTheme() {
+		ProjectOptions oldOptions = createOptions("--source-path+=src");
+		ProjectOptions newOptions = createOptions("--source-path+=src", "--theme+=spark.css");
+		Assertions.assertFalse(ProjectOptionsUtils.canReconfigure(oldOptions, newOptions),
+				"ProjectOptionsUtils.canReconfigure() must not allow a new theme.");
+	}
+
+	@Test
+	void testSourcePathOrderChanged() {
+		ProjectOptions oldOptions = createOptions("--source-path+=src", "--source-path+=lib");
+		ProjectOptions newOptions = createOptions("--source-path+=lib", "--source-path+=src");
+		Assertions.assertEquals(Arrays.asList("source-path"),
+				new ArrayList<>(ProjectOptionsUtils.findChangedOptionNames(oldOptions, newOptions)),
+				"ProjectOptionsUtils.findChangedOptionNames() must compare values in order.");
+	}
+}
@@ -0,0 +1,122 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package com.as3mxml.vscode.utils;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.as3mxml.vscode.utils.SWCSymbolDiskCache.CachedSymbol;
+
+import org.eclipse.lsp4j.SymbolKind;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SWCSymbolDiskCacheTests {
+	private Path tempDir;
+
+	@BeforeEach
+	void createTempDir() throws Exception {
+		tempDir = Files.createTempDirectory("swc-symbol-disk-cache");
+	}
+
+	@AfterEach
+	void deleteTempDir() throws Exception {
+		Files.walk(tempDir).sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+	}
+
+	@Test
+	void testSymbolsSurviveSaveAndLoad() throws Exception {
+		Path swcPath = Files.write(tempDir.resolve("library.swc"), new byte[] { 1, 2, 3 });
+		Path cacheFile = tempDir.resolve("cache").resolve("symbols.bin");
+		String swc = swcPath.toString();
+		SWCSymbolDiskCache cache = new SWCSymbolDiskCache(cacheFile);
+		cache.putSymbols(swc, Arrays.asList(new CachedSymbol(swc, "com.example", "Example", SymbolKind.Class, false),
+				new CachedSymbol(swc, "", "trace", SymbolKind.Function, true)));
+		cache.setSWCPaths(tempDir, Collections.singletonList(swc));
+		cache.save();
+
+		List<CachedSymbol> symbols = new SWCSymbolDiskCache(cacheFile).getSymbols(tempDir);
+		Assertions.assertEquals(2, symbols.size(), "SWCSymbolDiskCache.getSymbols() returned incorrect symbol count.");
+		CachedSymbol first = symbols.stream().filter(symbol -> symbol.name.equals("Example")).findFirst().get();
+		Assertions.assertEquals("com.example.Example", first.getQualifiedName());
+		Assertions.assertEquals(SymbolKind.Class, first.kind);
+		Assertions.assertEquals(swc, first.swcPath);
+		CachedSymbol second = symbols.stream().filter(symbol -> symbol.name.equals("trace")).findFirst().get();
+		Assertions.assertEquals("trace", second.getQualifiedName());
+		Assertions.assertTrue(second.deprecated);
+	}
+
+	@Test
+	void testChangedSWCIsIgnored() throws Exception {
+		Path swcPath = Files.write(tempDir.resolve("library.swc"), new byte[] { 1, 2, 3 });
+		Path cacheFile = tempDir.resolve("symbols.bin");
+		String swc = swcPath.toString();
+		SWCSymbolDiskCache cache = new SWCSymbolDiskCache(cacheFile);
+		cache.putSymbols(swc, Collections.singletonList(new CachedSymbol(swc, "", "Example", SymbolKind.Class, false)));
+		cache.setSWCPaths(tempDir, Collections.singletonList(swc));
+		cache.save();
+
+		Files.write(swcPath, new byte[] { 1, 2, 3, 4 });
+		SWCSymbolDiskCache reloaded = new SWCSymbolDiskCache(cacheFile);
+		Assertions.assertFalse(reloaded.isValid(swc), "SWCSymbolDiskCache.isValid() must be false after SWC changes.");
+		Assertions.assertEquals(0, reloaded.getSymbols(tempDir).size());
+	}
+
+	@Test
+	void testChecksumIsComparedByIsValid() throws Exception {
+		Path swcPath = Files.write(tempDir.resolve("library.swc"), new byte[] { 1, 2, 3 });
+		Path cacheFile = tempDir.resolve("symbols.bin");
+		String swc = swcPath.toString();
+		SWCSymbolDiskCache cache = new SWCSymbolDiskCache(cacheFile);
+		cache.putSymbols(swc, Collections.singletonList(new CachedSymbol(swc, "", "Example", SymbolKind.Class, false)));
+		cache.setSWCPaths(tempDir, Collections.singletonList(swc));
+		cache.save();
+
+		//same size and modification time, but different contents
+		long lastModified = swcPath.toFile().lastModified();
+		Files.write(swcPath, new byte[] { 3, 2, 1 });
+		swcPath.toFile().setLastModified(lastModified);
+		SWCSymbolDiskCache reloaded = new SWCSymbolDiskCache(cacheFile);
+		Assertions.assertEquals(1, reloaded.getSymbols(tempDir).size(),
+				"SWCSymbolDiskCache.getSymbols() must not compare checksums.");
+		Assertions.assertFalse(reloaded.isValid(swc), "SWCSymbolDiskCache.isValid() must compare checksums.");
+		Assertions.assertEquals(0, reloaded.getSymbols(tempDir).size());
+	}
+
+	@Test
+	void testSaveLeavesNoTemporaryFiles() throws Exception {
+		Path swcPath = Files.write(tempDir.resolve("library.swc"), new byte[] { 1, 2, 3 });
+		Path cacheFolder = tempDir.resolve("cache");
+		String swc = swcPath.toString();
+		SWCSymbolDiskCache cache = new SWCSymbolDiskCache(cacheFolder.resolve("symbols.bin"));
+		cache.putSymbols(swc, Collections.singletonList(new CachedSymbol(swc, "", "Example", SymbolKind.Class, false)));
+		cache.setSWCPaths(tempDir, Collections.singletonList(swc));
+		cache.save();
+		cache.save();
+
+		try (Stream<Path> files = Files.list(cacheFolder)) {
+			Assertions.assertEquals(1, files.count(), "SWCSymbolDiskCache.save() must not leave temporary files.");
+		}
+	}
+}
@@ -0,0 +1,84 @@
+/*
+Copyright 2016-2020 Bowler Hat LLC
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+import * as vscode from "vscode";
+
+const PROGRESS_TITLE = "Checking ActionScript & MXML problems";
+
+export interface CheckProblemsProgress {
+  uri: string;
+  checked: number;
+  total: number;
+}
+
+interface ProjectProgress {
+  checked: number;
+  report: (value: { message?: string; increment?: number }) => void;
+  resolve: () => void;
+}
+
+const progressByProject = new Map<string, ProjectProgress>();
+
+export default function checkProblemsProgress(
+  progress: CheckProblemsProgress
+) {
+  let projectProgress = progressByProject.get(progress.uri);
+  if (progress.checked >= progress.total) {
+    if (projectProgress) {
+      progressByProject.delete(progress.uri);
+      projectProgress.resolve();
+    }
+    return;
+  }
+  if (!projectProgress) {
+    let newProgress: ProjectProgress = {
+      checked: 0,
+      report: null,
+      resolve: null,
+    };
+    progressByProject.set(progress.uri, newProgress);
+    vscode.window.withProgress(
+      {
+        location: vscode.ProgressLocation.Window,
+        title: PROGRESS_TITLE,
+      },
+      (windowProgress) => {
+        return new Promise<void>((resolve) => {
+          newProgress.report = windowProgress.report.bind(windowProgress);
+          newProgress.resolve = resolve;
+          updateProgress(newProgress, progress);
+        });
+      }
+    );
+    return;
+  }
+  updateProgress(projectProgress, progress);
+}
+
+function updateProgress(
+  projectProgress: ProjectProgress,
+  progress: CheckProblemsProgress
+) {
+  if (!projectProgress.report) {
+    return;
+  }
+  let increment =
+    (100 * (progress.checked - projectProgress.checked)) / progress.total;
+  projectProgress.checked = progress.checked;
+  projectProgress.report({
+    message: `${progress.checked}/${progress.total}`,
+    increment: increment,
+  });
+}
@@ -40,6 +40,9 @@ import {
   ExecutableOptions,
 } from "vscode-languageclient";
 import logCompilerShellOutput from "./commands/logCompilerShellOutput";
+import checkProblemsProgress, {
+  CheckProblemsProgress,
+} from "./commands/checkProblemsProgress";
 import quickCompileAndLaunch from "./commands/quickCompileAndLaunch";
 import migrateSettings from "./utils/migrateSettings";
 import saveSessionPassword from "./commands/saveSessionPassword";
@@ -524,6 +527,12 @@ function startClient() {
                 logCompilerShellOutput(null, false, true);
               }
             );
+            savedLanguageClient.onNotification(
+              "as3mxml/checkProblemsProgress",
+              (notification: CheckProblemsProgress) => {
+                checkProblemsProgress(notification);
+              }
+            );
             if (pendingQuickCompileAndDebug) {
               vscode.commands.executeCommand("as3mxml.quickCompileAndDebug");
             } else if (pendingQuickCompileAndRun) {